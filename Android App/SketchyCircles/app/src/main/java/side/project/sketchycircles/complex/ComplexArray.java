@@ -2,8 +2,6 @@ package side.project.sketchycircles.complex;
 
 import java.util.ArrayList;
 
-class UnequalArrayLengthsException extends RuntimeException {}
-
 public class ComplexArray extends ArrayList<Complex> {
 
     public ComplexArray() {}
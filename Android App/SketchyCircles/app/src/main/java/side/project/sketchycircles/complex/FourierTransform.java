@@ -128,6 +128,75 @@ public class FourierTransform{
         }
     }
 
+    /*
+    Single precision version. Only the storage is float: the twiddle
+    factors and each butterfly are computed in double precision and
+    rounded once when stored.*/
+    public static void inPlaceFastFourierTransform(ComplexFloatVector vector) {
+        if (isPowerOfTwo(vector.size)){
+
+            int n = vector.size;
+            float [] re = vector.re;
+            float [] im = vector.im;
+
+            int u, d, rev;
+            float tmp;
+            for (int i = 0; i < n; i++){
+                u = 1;
+                d = n >> 1;
+                rev = 0;
+                while (u < n){
+                    rev += d*((i&u)/u);
+                    u <<= 1;
+                    d >>= 1;
+                }
+                if (rev > i){
+                    tmp = re[i];
+                    re[i] = re[rev];
+                    re[rev] = tmp;
+                    tmp = im[i];
+                    im[i] = im[rev];
+                    im[rev] = tmp;
+                }
+            }
+
+            double [] cosArr = new double [n/2];
+            FourierTransform.setCosArr(cosArr, n);
+
+            int numberOfBlocks = n/2;
+            int even, odd;
+            double cosVal, sinVal, expRe, expIm, evenRe, evenIm;
+            for (int blockSize = 2; blockSize <= n; blockSize *= 2) {
+                for (int j = 0; j < n; j += blockSize) {
+                    for (int i = 0; i < blockSize/2; i++) {
+
+                        even = j + i;
+                        odd = blockSize/2 + j + i;
+
+                        cosVal = cosArr[i*numberOfBlocks];
+                        sinVal = (i*numberOfBlocks < n/4)?
+                                (-cosArr[i*numberOfBlocks + n/4]):
+                                ( cosArr[i*numberOfBlocks - n/4]);
+
+                        expRe = cosVal*re[odd] - im[odd]*sinVal;
+                        expIm = cosVal*im[odd] + re[odd]*sinVal;
+                        evenRe = re[even];
+                        evenIm = im[even];
+
+                        re[odd] = (float)(evenRe - expRe);
+                        im[odd] = (float)(evenIm - expIm);
+                        re[even] = (float)(evenRe + expRe);
+                        im[even] = (float)(evenIm + expIm);
+                    }
+                }
+                numberOfBlocks = numberOfBlocks/2;
+            }
+        }
+        else{
+            throw new UnsupportedOperationException();
+        }
+    }
+
     public static double [] fourierFrequencies(int n) {
         double [] freq = new double[n];
         for (int i = 0; i < n/2; i++){
@@ -67,4 +67,52 @@ public final class Functions{
         }
         return array2;
     }
+
+    public static ComplexFloatVector exp(ComplexFloatVector vector) {
+        int n = vector.size;
+        ComplexFloatVector vector2 = new ComplexFloatVector(n);
+        double expRe;
+        for (int i = 0; i < n; i++){
+            expRe = Math.exp(vector.re[i]);
+            vector2.re[i] = (float)(expRe*Math.cos(vector.im[i]));
+            vector2.im[i] = (float)(expRe*Math.sin(vector.im[i]));
+        }
+        return vector2;
+    }
+
+    public static ComplexFloatVector sin(ComplexFloatVector vector) {
+        int n = vector.size;
+        ComplexFloatVector vector2 = new ComplexFloatVector(n);
+        double re, im;
+        for (int i = 0; i < n; i++){
+            re = vector.re[i];
+            im = vector.im[i];
+            if (im == 0.0){
+                vector2.re[i] = (float)Math.sin(re);
+            }
+            else{
+                vector2.re[i] = (float)(Math.sin(re)*Math.cosh(im));
+                vector2.im[i] = (float)(Math.cos(re)*Math.sinh(im));
+            }
+        }
+        return vector2;
+    }
+
+    public static ComplexFloatVector cos(ComplexFloatVector vector) {
+        int n = vector.size;
+        ComplexFloatVector vector2 = new ComplexFloatVector(n);
+        double re, im;
+        for (int i = 0; i < n; i++){
+            re = vector.re[i];
+            im = vector.im[i];
+            if (im == 0.0){
+                vector2.re[i] = (float)Math.cos(re);
+            }
+            else{
+                vector2.re[i] = (float)(Math.cos(re)*Math.cosh(im));
+                vector2.im[i] = (float)(-Math.sin(re)*Math.sinh(im));
+            }
+        }
+        return vector2;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package side.project.sketchycircles;
+
+import side.project.sketchycircles.complex.ComplexArray;
+import side.project.sketchycircles.complex.ComplexFloatVector;
+import side.project.sketchycircles.complex.FourierTransform;
+import side.project.sketchycircles.complex.Functions;
+
+import org.junit.Test;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.runner.*;
+import org.junit.runner.notification.Failure;
+
+import static java.lang.System.out;
+
+public class TestComplexFloatVector {
+
+    public static int testCount = 0;
+
+    @Before
+    public void before() {
+        testCount++;
+    }
+
+    @Test
+    public void storageTest() {
+        ComplexFloatVector v = new ComplexFloatVector();
+        v.add(1.0, 2.0);
+        v.add(0.0, -0.5);
+        Assert.assertEquals(2, v.size());
+        Assert.assertEquals("[1.0 + 2.0i, -0.5i]", v.toString());
+        Assert.assertEquals("[1.0 + 2.0i, -0.5i]",
+                v.toComplexArray().toString());
+    }
+
+    @Test
+    public void fastFourierTransformTest() {
+        ComplexArray t = ComplexArray.linspace(-Math.PI, Math.PI, 256);
+        ComplexArray z = Functions.sin(t);
+        ComplexFloatVector zf = Functions.sin(
+                ComplexFloatVector.fromComplexArray(t));
+        FourierTransform.inPlaceFastFourierTransform(z);
+        FourierTransform.inPlaceFastFourierTransform(zf);
+        for (int i = 0; i < z.size(); i++) {
+            Assert.assertEquals(z.get(i).getReal(), zf.getReal(i), 1e-4);
+            Assert.assertEquals(z.get(i).getImag(), zf.getImag(i), 1e-4);
+        }
+    }
+
+    public static void main(String [] args) {
+        Result result = JUnitCore.runClasses(TestComplexFloatVector.class);
+        int failCount = 0;
+        for (Failure failure: result.getFailures()) {
+            failCount++;
+            out.println(failure.toString());
+        }
+        out.printf("Passed %d/%d\n", (testCount - failCount), testCount);
+    }
+}
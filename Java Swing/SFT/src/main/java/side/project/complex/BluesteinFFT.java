@@ -0,0 +1,139 @@
+package side.project.complex;
+
+/*
+Bluestein's chirp-z algorithm, which computes a DFT of any length n
+in O(n log n) time.
+
+Writing 2jk = j^2 + k^2 - (k - j)^2 turns the transform into
+
+    X[k] = c[k] * sum over j of (x[j]*c[j])*conj(c[k - j])
+
+with the chirp c[j] = exp(sign*i*pi*j^2/n). The sum is a
+convolution, which is computed with the radix-2 FFT of a power of
+two length m >= 2n - 1. So a length with a large prime factor, where
+the mixed radix FFT does O(n p) work, costs three power of two
+transforms instead.
+
+The chirp and the transformed convolution kernel only depend on n,
+so they are kept in a small cache and reused by later transforms of
+the same length. Instances are immutable and can be shared between
+threads.
+
+Reference:
+
+https://en.wikipedia.org/wiki/Chirp_Z-transform#Bluestein.27s_algorithm*/
+final class BluesteinFFT {
+
+    private static final PlanCache<BluesteinFFT> CACHE = new PlanCache<>(16);
+
+    private final int n;
+    private final int m;
+    private final int sign;
+    private final double [] chirpRe;
+    private final double [] chirpIm;
+    // Radix-2 transform of conj(c), divided by m so the inverse
+    // transform of the product needs no extra scaling.
+    private final double [] kernelRe;
+    private final double [] kernelIm;
+    private final FftPlan plan;
+
+    private BluesteinFFT(int n, int sign) {
+        this.n = n;
+        this.sign = sign;
+        int m = 1;
+        while (m < 2*n - 1){
+            m <<= 1;
+        }
+        this.m = m;
+        this.chirpRe = new double[n];
+        this.chirpIm = new double[n];
+        long twoN = 2L*n;
+        double angle;
+        for (int j = 0; j < n; j++){
+            // j^2 mod 2n keeps the angle small for large j.
+            angle = sign*Math.PI*(((long)j*j) % twoN)/n;
+            this.chirpRe[j] = Math.cos(angle);
+            this.chirpIm[j] = Math.sin(angle);
+        }
+        this.kernelRe = new double[m];
+        this.kernelIm = new double[m];
+        for (int j = 0; j < n; j++){
+            this.kernelRe[j] = this.chirpRe[j]/m;
+            this.kernelIm[j] = -this.chirpIm[j]/m;
+            if (j > 0){
+                this.kernelRe[m - j] = this.kernelRe[j];
+                this.kernelIm[m - j] = this.kernelIm[j];
+            }
+        }
+        this.plan = FftPlan.forSize(m);
+        this.plan.transform(this.kernelRe, this.kernelIm, 0);
+    }
+
+    /*
+    The transform for length n and the given sign of the exponent,
+    from the cache when possible.*/
+    static BluesteinFFT forSize(int n, int sign) {
+        if (n < 1){
+            throw new IllegalArgumentException("Size must be positive: " + n);
+        }
+        long key = sign*(long)n;
+        BluesteinFFT plan = CACHE.get(key);
+        if (plan == null){
+            plan = CACHE.put(key, new BluesteinFFT(n, sign));
+        }
+        return plan;
+    }
+
+    int size() {
+        return this.n;
+    }
+
+    /*
+    Unnormalized transform of the n values in (inRe, inIm), written
+    to (outRe, outIm). The output may be the input arrays.*/
+    void transform(double [] inRe, double [] inIm,
+                   double [] outRe, double [] outIm) {
+        this.transform(inRe, inIm, outRe, outIm,
+                new double[this.m], new double[this.m]);
+    }
+
+    /*
+    Length of the convolution, and of the re and im work arrays
+    given to the transform below.*/
+    int workSize() {
+        return this.m;
+    }
+
+    void transform(double [] inRe, double [] inIm,
+                   double [] outRe, double [] outIm,
+                   double [] re, double [] im) {
+        int n = this.n, m = this.m;
+        for (int j = n; j < m; j++){
+            re[j] = 0.0;
+            im[j] = 0.0;
+        }
+        double xRe, xIm;
+        for (int j = 0; j < n; j++){
+            xRe = inRe[j];
+            xIm = inIm[j];
+            re[j] = xRe*this.chirpRe[j] - xIm*this.chirpIm[j];
+            im[j] = xRe*this.chirpIm[j] + xIm*this.chirpRe[j];
+        }
+        this.plan.transform(re, im, 0);
+        // Multiply by the kernel and conjugate, so that the forward
+        // radix-2 transform below acts as the inverse transform.
+        for (int j = 0; j < m; j++){
+            xRe = re[j];
+            xIm = im[j];
+            re[j] = xRe*this.kernelRe[j] - xIm*this.kernelIm[j];
+            im[j] = -(xRe*this.kernelIm[j] + xIm*this.kernelRe[j]);
+        }
+        this.plan.transform(re, im, 0);
+        for (int k = 0; k < n; k++){
+            xRe = re[k];
+            xIm = -im[k];
+            outRe[k] = xRe*this.chirpRe[k] - xIm*this.chirpIm[k];
+            outIm[k] = xRe*this.chirpIm[k] + xIm*this.chirpRe[k];
+        }
+    }
+}
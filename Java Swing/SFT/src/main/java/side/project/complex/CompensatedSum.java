@@ -0,0 +1,32 @@
+package side.project.complex;
+
+/*
+Running sum with Neumaier's compensation: the rounding error of
+every addition is collected separately and added back at the end,
+so summing millions of terms loses almost no precision.*/
+final class CompensatedSum {
+
+    private double sum;
+    private double compensation;
+
+    void add(double value) {
+        double t = this.sum + value;
+        if (Math.abs(this.sum) >= Math.abs(value)){
+            this.compensation += (this.sum - t) + value;
+        }
+        else{
+            this.compensation += (value - t) + this.sum;
+        }
+        this.sum = t;
+    }
+
+    CompensatedSum merge(CompensatedSum other) {
+        this.add(other.sum);
+        this.compensation += other.compensation;
+        return this;
+    }
+
+    double value() {
+        return this.sum + this.compensation;
+    }
+}
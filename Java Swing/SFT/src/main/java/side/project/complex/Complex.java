@@ -1,7 +1,14 @@
 package side.project.complex;
 
-class DivisionByZeroException extends ArithmeticException {}
-
+/*
+Mutable complex number. Most operations come in two flavours: one
+that returns a new Complex (add, multiply, ...) and one that
+changes this instance (addBy, multiplyBy, ...).
+
+Since instances can be changed they cannot be safely shared, which
+also keeps the JIT from optimizing them away in hot loops. New code
+in such loops should prefer the immutable ComplexValue, see
+toValue().*/
 public class Complex {
 
     private double r = 0.0;
@@ -56,6 +63,10 @@ public class Complex {
         return new Complex(this.r/abs2, -this.i/abs2);
     }
 
+    public ComplexValue toValue() {
+        return new ComplexValue(this.r, this.i);
+    }
+
     public void setReal(double r) {
         this.r = r;
     }
@@ -1,8 +1,7 @@
 package side.project.complex;
 
 import java.util.ArrayList;
-
-class UnequalArrayLengthsException extends RuntimeException {}
+import java.util.stream.DoubleStream;
 
 public class ComplexArray extends ArrayList<Complex> {
 
@@ -70,15 +69,49 @@ public class ComplexArray extends ArrayList<Complex> {
         super.add(new Complex(re, im));
     }
 
+    /*
+    Deep copy: the new array gets its own Complex objects, so
+    changing an element in place does not affect the original.*/
     @Override
     public ComplexArray clone() {
         ComplexArray newArr = new ComplexArray();
+        newArr.ensureCapacity(this.size());
         for (Complex z: this) {
-            newArr.add(z);
+            newArr.add(z.getReal(), z.getImag());
         }
         return newArr;
     }
 
+    public ComplexArrayView view(int offset, int length, int stride) {
+        return new ComplexArrayView(this, offset, length, stride);
+    }
+
+    public ComplexArrayView slice(int fromIndex, int toIndex) {
+        return new ComplexArrayView(this, fromIndex,
+                toIndex - fromIndex, 1);
+    }
+
+    public ComplexArrayView reversed() {
+        return new ComplexArrayView(this, this.size() - 1,
+                this.size(), -1);
+    }
+
+    public DoubleStream realStream() {
+        return this.stream().mapToDouble(Complex::getReal);
+    }
+
+    public DoubleStream imagStream() {
+        return this.stream().mapToDouble(Complex::getImag);
+    }
+
+    public DoubleStream absStream() {
+        return this.stream().mapToDouble(Complex::getAbs);
+    }
+
+    public DoubleStream argStream() {
+        return this.stream().mapToDouble(Complex::getArg);
+    }
+
     public static ComplexArray linspace(double start, double end,
                                         int n) {
         ComplexArray array = new ComplexArray();
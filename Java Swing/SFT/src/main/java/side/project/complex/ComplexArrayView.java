@@ -0,0 +1,69 @@
+package side.project.complex;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/*
+List view of length elements of a ComplexArray, starting at offset
+and stepping by stride (negative strides walk backwards).
+
+No elements are copied. get returns the Complex stored in the
+parent, so changing it in place changes the parent, and set
+replaces the element in the parent.*/
+public class ComplexArrayView extends AbstractList<Complex>
+        implements RandomAccess {
+
+    private final ComplexArray parent;
+    private final int offset;
+    private final int length;
+    private final int stride;
+
+    ComplexArrayView(ComplexArray parent,
+                     int offset, int length, int stride) {
+        ComplexVectorView.checkBounds(parent.size(), offset, length, stride);
+        this.parent = parent;
+        this.offset = offset;
+        this.length = length;
+        this.stride = stride;
+    }
+
+    private int index(int index) {
+        if (index < 0 || index >= this.length){
+            throw new IndexOutOfBoundsException(
+                    "Index: " + index + ", Size: " + this.length);
+        }
+        return this.offset + index*this.stride;
+    }
+
+    @Override
+    public Complex get(int index) {
+        return this.parent.get(this.index(index));
+    }
+
+    @Override
+    public Complex set(int index, Complex z) {
+        return this.parent.set(this.index(index), z);
+    }
+
+    @Override
+    public int size() {
+        return this.length;
+    }
+
+    public ComplexArrayView view(int offset, int length, int stride) {
+        ComplexVectorView.checkBounds(this.length, offset, length, stride);
+        return new ComplexArrayView(this.parent,
+                this.offset + offset*this.stride,
+                length, stride*this.stride);
+    }
+
+    public ComplexArray copy() {
+        ComplexArray array = new ComplexArray();
+        array.ensureCapacity(this.length);
+        for (int i = 0; i < this.length; i++){
+            Complex z = this.get(i);
+            array.add(z.getReal(), z.getImag());
+        }
+        return array;
+    }
+}
@@ -0,0 +1,296 @@
+package side.project.complex;
+
+import java.util.Arrays;
+
+/*
+Lazy chain of element-wise operations on a ComplexVector.
+
+Calling Functions.exp(...) and then multiplying the result creates
+one full intermediate vector per step. A ComplexExpression only
+records the steps, for example
+
+    ComplexExpression.of(t).scale(0.0, freq).exp().multiply(window)
+
+and nothing is computed until evaluate() or evaluateInto(dest).
+The evaluation then makes a single pass over the data: it loads a
+small block of the source, applies every step to that block while
+it is in cache, and writes it to the destination. With parallel()
+the blocks are spread over the common fork join pool.
+
+Expressions are immutable, each step returns a new expression.*/
+public final class ComplexExpression {
+
+    private static final int BLOCK_SIZE = 512;
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private final ComplexVector source;
+    private final Op [] ops;
+    private final boolean parallel;
+
+    private ComplexExpression(ComplexVector source, Op [] ops,
+                              boolean parallel) {
+        this.source = source;
+        this.ops = ops;
+        this.parallel = parallel;
+    }
+
+    public static ComplexExpression of(ComplexVector source) {
+        return new ComplexExpression(source, new Op[0], false);
+    }
+
+    public int size() {
+        return this.source.size;
+    }
+
+    private ComplexExpression then(Op op) {
+        Op [] ops = Arrays.copyOf(this.ops, this.ops.length + 1);
+        ops[this.ops.length] = op;
+        return new ComplexExpression(this.source, ops, this.parallel);
+    }
+
+    private ComplexVector checkOperand(ComplexVector operand) {
+        if (operand.size != this.source.size){
+            throw new UnequalArrayLengthsException();
+        }
+        return operand;
+    }
+
+    public ComplexExpression parallel() {
+        return new ComplexExpression(this.source, this.ops, true);
+    }
+
+    public ComplexExpression sequential() {
+        return new ComplexExpression(this.source, this.ops, false);
+    }
+
+    public ComplexExpression exp() {
+        return this.then(new Exp());
+    }
+
+    public ComplexExpression sin() {
+        return this.then(new Sin());
+    }
+
+    public ComplexExpression cos() {
+        return this.then(new Cos());
+    }
+
+    public ComplexExpression conj() {
+        return this.then(new Conj());
+    }
+
+    public ComplexExpression scale(double real) {
+        return this.then(new MultiplyScalar(real, 0.0));
+    }
+
+    public ComplexExpression scale(double real, double imag) {
+        return this.then(new MultiplyScalar(real, imag));
+    }
+
+    public ComplexExpression add(double real, double imag) {
+        return this.then(new AddScalar(real, imag));
+    }
+
+    public ComplexExpression add(ComplexVector other) {
+        return this.then(new AddVector(this.checkOperand(other)));
+    }
+
+    public ComplexExpression multiply(ComplexVector other) {
+        return this.then(new MultiplyVector(this.checkOperand(other)));
+    }
+
+    /*
+    Multiplies each element by the matching real weight, e.g. a
+    window function.*/
+    public ComplexExpression multiply(double [] weights) {
+        if (weights.length != this.source.size){
+            throw new UnequalArrayLengthsException();
+        }
+        return this.then(new MultiplyWeights(weights));
+    }
+
+    public ComplexVector evaluate() {
+        ComplexVector dest = new ComplexVector(this.source.size);
+        this.evaluateInto(dest);
+        return dest;
+    }
+
+    /*
+    Writes the result into dest, which must have the same size as
+    the source. dest may be the source itself, or any of the
+    operands, since each block is read completely before it is
+    written back.*/
+    public void evaluateInto(final ComplexVector dest) {
+        this.checkOperand(dest);
+        int n = this.source.size;
+        if (this.parallel){
+            ParallelRange.forEach(n, PARALLEL_THRESHOLD,
+                    (from, to) -> this.evaluateRange(dest, from, to));
+        }
+        else{
+            this.evaluateRange(dest, 0, n);
+        }
+    }
+
+    private void evaluateRange(ComplexVector dest, int from, int to) {
+        double [] re = new double[BLOCK_SIZE];
+        double [] im = new double[BLOCK_SIZE];
+        for (int start = from; start < to; start += BLOCK_SIZE){
+            int len = Math.min(BLOCK_SIZE, to - start);
+            System.arraycopy(this.source.re, start, re, 0, len);
+            System.arraycopy(this.source.im, start, im, 0, len);
+            for (Op op: this.ops){
+                op.apply(re, im, start, len);
+            }
+            System.arraycopy(re, 0, dest.re, start, len);
+            System.arraycopy(im, 0, dest.im, start, len);
+        }
+    }
+
+    /*
+    One step of the expression, applied to a block of len elements
+    whose first element sits at index start of the full vector.*/
+    private abstract static class Op {
+        abstract void apply(double [] re, double [] im, int start, int len);
+    }
+
+    private static class Exp extends Op {
+        @Override
+        void apply(double [] re, double [] im, int start, int len) {
+            ComplexKernels.INSTANCE.exp(re, im, re, im, 0, len);
+        }
+    }
+
+    private static class Sin extends Op {
+        @Override
+        void apply(double [] re, double [] im, int start, int len) {
+            double r;
+            for (int i = 0; i < len; i++){
+                r = re[i];
+                if (im[i] == 0.0){
+                    re[i] = Math.sin(r);
+                }
+                else{
+                    re[i] = Math.sin(r)*Math.cosh(im[i]);
+                    im[i] = Math.cos(r)*Math.sinh(im[i]);
+                }
+            }
+        }
+    }
+
+    private static class Cos extends Op {
+        @Override
+        void apply(double [] re, double [] im, int start, int len) {
+            double r;
+            for (int i = 0; i < len; i++){
+                r = re[i];
+                if (im[i] == 0.0){
+                    re[i] = Math.cos(r);
+                }
+                else{
+                    re[i] = Math.cos(r)*Math.cosh(im[i]);
+                    im[i] = -Math.sin(r)*Math.sinh(im[i]);
+                }
+            }
+        }
+    }
+
+    private static class Conj extends Op {
+        @Override
+        void apply(double [] re, double [] im, int start, int len) {
+            for (int i = 0; i < len; i++){
+                im[i] = -im[i];
+            }
+        }
+    }
+
+    private static class MultiplyScalar extends Op {
+        private final double real, imag;
+
+        MultiplyScalar(double real, double imag) {
+            this.real = real;
+            this.imag = imag;
+        }
+
+        @Override
+        void apply(double [] re, double [] im, int start, int len) {
+            double r;
+            for (int i = 0; i < len; i++){
+                r = re[i];
+                re[i] = this.real*r - this.imag*im[i];
+                im[i] = r*this.imag + im[i]*this.real;
+            }
+        }
+    }
+
+    private static class AddScalar extends Op {
+        private final double real, imag;
+
+        AddScalar(double real, double imag) {
+            this.real = real;
+            this.imag = imag;
+        }
+
+        @Override
+        void apply(double [] re, double [] im, int start, int len) {
+            for (int i = 0; i < len; i++){
+                re[i] += this.real;
+                im[i] += this.imag;
+            }
+        }
+    }
+
+    private static class AddVector extends Op {
+        private final ComplexVector other;
+
+        AddVector(ComplexVector other) {
+            this.other = other;
+        }
+
+        @Override
+        void apply(double [] re, double [] im, int start, int len) {
+            double [] oRe = this.other.re;
+            double [] oIm = this.other.im;
+            for (int i = 0; i < len; i++){
+                re[i] += oRe[start + i];
+                im[i] += oIm[start + i];
+            }
+        }
+    }
+
+    private static class MultiplyVector extends Op {
+        private final ComplexVector other;
+
+        MultiplyVector(ComplexVector other) {
+            this.other = other;
+        }
+
+        @Override
+        void apply(double [] re, double [] im, int start, int len) {
+            double [] oRe = this.other.re;
+            double [] oIm = this.other.im;
+            double r;
+            for (int i = 0; i < len; i++){
+                r = re[i];
+                re[i] = oRe[start + i]*r - oIm[start + i]*im[i];
+                im[i] = r*oIm[start + i] + im[i]*oRe[start + i];
+            }
+        }
+    }
+
+    private static class MultiplyWeights extends Op {
+        private final double [] weights;
+
+        MultiplyWeights(double [] weights) {
+            this.weights = weights;
+        }
+
+        @Override
+        void apply(double [] re, double [] im, int start, int len) {
+            for (int i = 0; i < len; i++){
+                re[i] *= this.weights[start + i];
+                im[i] *= this.weights[start + i];
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package side.project.complex;
+
+import java.util.Arrays;
+
+/*
+Single precision version of ComplexVector: the real and imaginary
+parts are stored in two float arrays, which halves the memory and
+bandwidth needed compared to doubles. That is plenty for pixel
+coordinates.
+
+Only the storage is single precision. The transforms and functions
+that accept this class compute each element in double precision
+(twiddle factors included) and round when storing the result.*/
+public class ComplexFloatVector {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float [] EMPTY = {};
+
+    // Package private, see ComplexVector.
+    float [] re;
+    float [] im;
+    int size;
+
+    public ComplexFloatVector() {
+        this.re = EMPTY;
+        this.im = EMPTY;
+    }
+
+    public ComplexFloatVector(int n) {
+        this.re = new float[n];
+        this.im = new float[n];
+        this.size = n;
+    }
+
+    public ComplexFloatVector(float [] reValues, float [] imValues) {
+        if (reValues.length != imValues.length){
+            throw new UnequalArrayLengthsException();
+        }
+        this.re = reValues.clone();
+        this.im = imValues.clone();
+        this.size = reValues.length;
+    }
+
+    public static ComplexFloatVector fromComplexVector(ComplexVector vector) {
+        ComplexFloatVector floats = new ComplexFloatVector(vector.size);
+        for (int i = 0; i < vector.size; i++){
+            floats.re[i] = (float)vector.re[i];
+            floats.im[i] = (float)vector.im[i];
+        }
+        return floats;
+    }
+
+    public static ComplexFloatVector fromComplexArray(ComplexArray array) {
+        ComplexFloatVector floats = new ComplexFloatVector(array.size());
+        for (int i = 0; i < array.size(); i++){
+            floats.re[i] = (float)array.get(i).getReal();
+            floats.im[i] = (float)array.get(i).getImag();
+        }
+        return floats;
+    }
+
+    public ComplexVector toComplexVector() {
+        ComplexVector vector = new ComplexVector(this.size);
+        for (int i = 0; i < this.size; i++){
+            vector.re[i] = this.re[i];
+            vector.im[i] = this.im[i];
+        }
+        return vector;
+    }
+
+    public ComplexArray toComplexArray() {
+        ComplexArray array = new ComplexArray();
+        array.ensureCapacity(this.size);
+        for (int i = 0; i < this.size; i++){
+            array.add(this.re[i], this.im[i]);
+        }
+        return array;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public int capacity() {
+        return this.re.length;
+    }
+
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > this.re.length){
+            int newCapacity = Math.max(
+                    Math.max(minCapacity, DEFAULT_CAPACITY),
+                    this.re.length + (this.re.length >> 1));
+            this.re = Arrays.copyOf(this.re, newCapacity);
+            this.im = Arrays.copyOf(this.im, newCapacity);
+        }
+    }
+
+    public void trimToSize() {
+        if (this.size < this.re.length){
+            this.re = Arrays.copyOf(this.re, this.size);
+            this.im = Arrays.copyOf(this.im, this.size);
+        }
+    }
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    public void add(double real, double imag) {
+        if (this.size == this.re.length){
+            this.ensureCapacity(this.size + 1);
+        }
+        this.re[this.size] = (float)real;
+        this.im[this.size] = (float)imag;
+        this.size++;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= this.size){
+            throw new IndexOutOfBoundsException(
+                    "Index: " + index + ", Size: " + this.size);
+        }
+    }
+
+    public float getReal(int index) {
+        this.checkIndex(index);
+        return this.re[index];
+    }
+
+    public float getImag(int index) {
+        this.checkIndex(index);
+        return this.im[index];
+    }
+
+    public double getAbs(int index) {
+        this.checkIndex(index);
+        double r = this.re[index];
+        double i = this.im[index];
+        return Math.sqrt(r*r + i*i);
+    }
+
+    public Complex get(int index) {
+        this.checkIndex(index);
+        return new Complex(this.re[index], this.im[index]);
+    }
+
+    public void set(int index, double real, double imag) {
+        this.checkIndex(index);
+        this.re[index] = (float)real;
+        this.im[index] = (float)imag;
+    }
+
+    public void multiplyBy(int index, double real, double imag) {
+        this.checkIndex(index);
+        double r = this.re[index];
+        double i = this.im[index];
+        this.re[index] = (float)(real*r - imag*i);
+        this.im[index] = (float)(r*imag + i*real);
+    }
+
+    public ComplexFloatVector copy() {
+        ComplexFloatVector vector = new ComplexFloatVector();
+        vector.re = Arrays.copyOf(this.re, this.size);
+        vector.im = Arrays.copyOf(this.im, this.size);
+        vector.size = this.size;
+        return vector;
+    }
+
+    @Override
+    public String toString() {
+        if (this.isEmpty()){
+            return "[]";
+        }
+        StringBuilder str = new StringBuilder("[");
+        if (this.size < 100){
+            for (int i = 0; i < this.size; i++){
+                str.append(this.get(i).toString());
+                str.append((i < this.size - 1)? ", ": "]");
+            }
+        }else{
+            for (int i = 0; i < 5; i++){
+                str.append(this.get(i).toString());
+                str.append(", ");
+            }
+            str.append("..., ");
+            str.append(this.get(this.size - 1).toString()).append("]");
+        }
+        return str.toString();
+    }
+}
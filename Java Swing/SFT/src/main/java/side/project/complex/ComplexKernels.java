@@ -0,0 +1,112 @@
+package side.project.complex;
+
+/*
+The innermost loops shared by the transforms and the element-wise
+functions, working on split real/imaginary arrays.
+
+INSTANCE is the SIMD implementation in VectorComplexKernels when
+it was compiled from src/vector/java and the jdk.incubator.vector
+module is available (run with --add-modules jdk.incubator.vector),
+and the plain scalar loops below otherwise. The class is only looked
+up by name, so the rest of the package compiles and runs without
+the module. Setting the system property side.project.complex.kernels
+to "scalar" forces the scalar loops.*/
+abstract class ComplexKernels {
+
+    static final ComplexKernels INSTANCE = load();
+
+    private static ComplexKernels load() {
+        if ("scalar".equals(System.getProperty(
+                "side.project.complex.kernels"))){
+            return new Scalar();
+        }
+        try {
+            return (ComplexKernels)Class.forName(
+                    "side.project.complex.VectorComplexKernels")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new Scalar();
+        }
+    }
+
+    abstract String name();
+
+    /*
+    d[i] = a[i]*b[i] for i in [from, to). d may be a or b.*/
+    abstract void multiply(double [] aRe, double [] aIm,
+                           double [] bRe, double [] bIm,
+                           double [] dRe, double [] dIm,
+                           int from, int to);
+
+    /*
+    half radix-2 butterflies between the runs starting at even and
+    odd, with the twiddle factor for butterfly k in (wRe[k], wIm[k]):
+        t = w[k]*x[odd + k]
+        x[odd + k] = x[even + k] - t
+        x[even + k] = x[even + k] + t*/
+    abstract void butterflies(double [] re, double [] im,
+                              int even, int odd, int half,
+                              double [] wRe, double [] wIm);
+
+    /*
+    d[i] = exp(s[i]) for i in [from, to). d may be s.*/
+    abstract void exp(double [] sRe, double [] sIm,
+                      double [] dRe, double [] dIm,
+                      int from, int to);
+
+    static class Scalar extends ComplexKernels {
+
+        @Override
+        String name() {
+            return "scalar";
+        }
+
+        @Override
+        void multiply(double [] aRe, double [] aIm,
+                      double [] bRe, double [] bIm,
+                      double [] dRe, double [] dIm,
+                      int from, int to) {
+            double re, im;
+            for (int i = from; i < to; i++){
+                re = aRe[i]*bRe[i] - aIm[i]*bIm[i];
+                im = aIm[i]*bRe[i] + aRe[i]*bIm[i];
+                dRe[i] = re;
+                dIm[i] = im;
+            }
+        }
+
+        @Override
+        void butterflies(double [] re, double [] im,
+                         int even, int odd, int half,
+                         double [] wRe, double [] wIm) {
+            butterflies(re, im, even, odd, 0, half, wRe, wIm);
+        }
+
+        static void butterflies(double [] re, double [] im,
+                                int even, int odd, int from, int half,
+                                double [] wRe, double [] wIm) {
+            double expRe, expIm;
+            for (int k = from; k < half; k++){
+                expRe = wRe[k]*re[odd + k] - im[odd + k]*wIm[k];
+                expIm = wRe[k]*im[odd + k] + re[odd + k]*wIm[k];
+                re[odd + k] = re[even + k] - expRe;
+                im[odd + k] = im[even + k] - expIm;
+                re[even + k] += expRe;
+                im[even + k] += expIm;
+            }
+        }
+
+        @Override
+        void exp(double [] sRe, double [] sIm,
+                 double [] dRe, double [] dIm,
+                 int from, int to) {
+            double expRe, imVal;
+            for (int i = from; i < to; i++){
+                expRe = Math.exp(sRe[i]);
+                imVal = sIm[i];
+                dRe[i] = expRe*Math.cos(imVal);
+                dIm[i] = expRe*Math.sin(imVal);
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package side.project.complex;
+
+/*
+Immutable complex number.
+
+Every operation returns a new value and nothing can be changed
+after construction, so instances can be shared freely. The
+methods are kept tiny so that the JIT inlines them, and since a
+value that does not leave a loop is never observed, the JIT can
+usually keep its two doubles in registers (scalar replacement)
+instead of allocating anything at all.
+
+Code that uses the mutable Complex class can move over one call
+at a time: Complex.toValue() and ComplexValue.toComplex() convert
+between the two, and the in place methods of Complex map onto
+reassignment, e.g. z.multiplyBy(w) becomes z = z.multiply(w).*/
+public final class ComplexValue {
+
+    public static final ComplexValue ZERO = new ComplexValue(0.0, 0.0);
+    public static final ComplexValue ONE = new ComplexValue(1.0, 0.0);
+    public static final ComplexValue I = new ComplexValue(0.0, 1.0);
+
+    private final double r;
+    private final double i;
+
+    public ComplexValue(double real, double imag) {
+        this.r = real;
+        this.i = imag;
+    }
+
+    public static ComplexValue of(double real, double imag) {
+        return new ComplexValue(real, imag);
+    }
+
+    public static ComplexValue of(Complex z) {
+        return new ComplexValue(z.getReal(), z.getImag());
+    }
+
+    public static ComplexValue exp(double re, double im) {
+        double expRe = Math.exp(re);
+        return new ComplexValue(expRe*Math.cos(im), expRe*Math.sin(im));
+    }
+
+    public Complex toComplex() {
+        return new Complex(this.r, this.i);
+    }
+
+    public double getReal() {
+        return this.r;
+    }
+
+    public double getImag() {
+        return this.i;
+    }
+
+    private double getAbs2() {
+        return this.r*this.r + this.i*this.i;
+    }
+
+    public double getAbs() {
+        return Math.sqrt(this.getAbs2());
+    }
+
+    public double getArg() {
+        double arg = 0.;
+        if (r >= 0.0 && i >= 0.0){
+            arg = Math.atan(i/r);
+        }else if (r >= 0.0 && i < 0.0){
+            arg = Complex.TAU + Math.atan(i/r);
+        }else if (r <= 0.0 && i > 0.0){
+            arg = Complex.TAU/2 + Math.atan(i/r);
+        }else if (r <= 0.0 && i <= 0.0){
+            arg = Complex.TAU/2 + Math.atan(i/r);
+        }
+        return arg;
+    }
+
+    public ComplexValue getConj() {
+        return new ComplexValue(this.r, -this.i);
+    }
+
+    public ComplexValue getInv() {
+        double abs2 = this.getAbs2();
+        return new ComplexValue(this.r/abs2, -this.i/abs2);
+    }
+
+    public ComplexValue add(ComplexValue z) {
+        return new ComplexValue(this.r + z.r, this.i + z.i);
+    }
+
+    public ComplexValue add(double real, double imag) {
+        return new ComplexValue(this.r + real, this.i + imag);
+    }
+
+    public ComplexValue subtract(ComplexValue z) {
+        return new ComplexValue(this.r - z.r, this.i - z.i);
+    }
+
+    public ComplexValue subtract(double real, double imag) {
+        return new ComplexValue(this.r - real, this.i - imag);
+    }
+
+    public ComplexValue multiply(ComplexValue z) {
+        return new ComplexValue(this.r*z.r - this.i*z.i,
+                this.i*z.r + this.r*z.i);
+    }
+
+    public ComplexValue multiply(double real) {
+        return new ComplexValue(real*this.r, real*this.i);
+    }
+
+    public ComplexValue multiply(double real, double imag) {
+        return new ComplexValue(real*this.r - imag*this.i,
+                this.r*imag + this.i*real);
+    }
+
+    public ComplexValue divide(ComplexValue z) {
+        return this.divide(z.r, z.i);
+    }
+
+    public ComplexValue divide(double real) {
+        if (real == 0.0) { throw new DivisionByZeroException(); }
+        return new ComplexValue(this.r/real, this.i/real);
+    }
+
+    public ComplexValue divide(double real, double imag) {
+        double abs2 = real*real + imag*imag;
+        if (abs2 == 0.0){
+            throw new DivisionByZeroException();
+        }
+        real *= (1.0/abs2);
+        imag *= (-1.0/abs2);
+        return this.multiply(real, imag);
+    }
+
+    public ComplexValue exp() {
+        return exp(this.r, this.i);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o){
+            return true;
+        }
+        if (!(o instanceof ComplexValue)){
+            return false;
+        }
+        ComplexValue z = (ComplexValue)o;
+        return Double.compare(this.r, z.r) == 0
+                && Double.compare(this.i, z.i) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31*Double.hashCode(this.r) + Double.hashCode(this.i);
+    }
+
+    @Override
+    public String toString() {
+        return this.toComplex().toString();
+    }
+}
@@ -0,0 +1,332 @@
+package side.project.complex;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+Growable vector of complex numbers stored as two contiguous
+primitive arrays, one for the real parts and one for the
+imaginary parts (struct of arrays).
+
+Unlike ComplexArray, which holds a separate Complex object
+for every element, the samples here live next to each other in
+memory, so loops over them touch far less memory and do not
+create any garbage.*/
+public class ComplexVector {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double [] EMPTY = {};
+
+    // The backing storage is package private so that the
+    // transforms and functions in this package can work on it
+    // directly. Only the first size entries are meaningful.
+    double [] re;
+    double [] im;
+    int size;
+
+    public ComplexVector() {
+        this.re = EMPTY;
+        this.im = EMPTY;
+    }
+
+    public ComplexVector(int n) {
+        this.re = new double[n];
+        this.im = new double[n];
+        this.size = n;
+    }
+
+    public ComplexVector(double [] reValues) {
+        this.re = reValues.clone();
+        this.im = new double[reValues.length];
+        this.size = reValues.length;
+    }
+
+    public ComplexVector(double [] reValues, double [] imValues) {
+        if (reValues.length != imValues.length){
+            throw new UnequalArrayLengthsException();
+        }
+        this.re = reValues.clone();
+        this.im = imValues.clone();
+        this.size = reValues.length;
+    }
+
+    public static ComplexVector withCapacity(int capacity) {
+        ComplexVector vector = new ComplexVector();
+        vector.ensureCapacity(capacity);
+        return vector;
+    }
+
+    public static ComplexVector fromComplexArray(ComplexArray array) {
+        int n = array.size();
+        ComplexVector vector = new ComplexVector(n);
+        for (int i = 0; i < n; i++){
+            Complex z = array.get(i);
+            vector.re[i] = z.getReal();
+            vector.im[i] = z.getImag();
+        }
+        return vector;
+    }
+
+    public ComplexArray toComplexArray() {
+        ComplexArray array = new ComplexArray();
+        array.ensureCapacity(this.size);
+        for (int i = 0; i < this.size; i++){
+            array.add(this.re[i], this.im[i]);
+        }
+        return array;
+    }
+
+    /*
+    n evenly spaced real values from start to end, both included.
+    Empty for n = 0.*/
+    public static ComplexVector linspace(double start, double end,
+                                         int n) {
+        if (n < 0){
+            throw new IllegalArgumentException(
+                    "Negative number of points: " + n);
+        }
+        ComplexVector vector = new ComplexVector(n);
+        if (n == 0){
+            return vector;
+        }
+        vector.re[0] = start;
+        double val = start;
+        double step = (end - start)/(n - 1);
+        for (int i = 1; i < n; i++){
+            val += step;
+            vector.re[i] = val;
+        }
+        return vector;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public int capacity() {
+        return this.re.length;
+    }
+
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > this.re.length){
+            int newCapacity = Math.max(
+                    Math.max(minCapacity, DEFAULT_CAPACITY),
+                    this.re.length + (this.re.length >> 1));
+            this.re = Arrays.copyOf(this.re, newCapacity);
+            this.im = Arrays.copyOf(this.im, newCapacity);
+        }
+    }
+
+    public void trimToSize() {
+        if (this.size < this.re.length){
+            this.re = Arrays.copyOf(this.re, this.size);
+            this.im = Arrays.copyOf(this.im, this.size);
+        }
+    }
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    public void add(double real, double imag) {
+        if (this.size == this.re.length){
+            this.ensureCapacity(this.size + 1);
+        }
+        this.re[this.size] = real;
+        this.im[this.size] = imag;
+        this.size++;
+    }
+
+    public void add(Complex z) {
+        this.add(z.getReal(), z.getImag());
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= this.size){
+            throw new IndexOutOfBoundsException(
+                    "Index: " + index + ", Size: " + this.size);
+        }
+    }
+
+    public double getReal(int index) {
+        this.checkIndex(index);
+        return this.re[index];
+    }
+
+    public double getImag(int index) {
+        this.checkIndex(index);
+        return this.im[index];
+    }
+
+    public double getAbs(int index) {
+        this.checkIndex(index);
+        return Math.sqrt(this.re[index]*this.re[index]
+                + this.im[index]*this.im[index]);
+    }
+
+    public Complex get(int index) {
+        this.checkIndex(index);
+        return new Complex(this.re[index], this.im[index]);
+    }
+
+    public void set(int index, double real, double imag) {
+        this.checkIndex(index);
+        this.re[index] = real;
+        this.im[index] = imag;
+    }
+
+    public void set(int index, Complex z) {
+        this.set(index, z.getReal(), z.getImag());
+    }
+
+    public void setReal(int index, double real) {
+        this.checkIndex(index);
+        this.re[index] = real;
+    }
+
+    public void setImag(int index, double imag) {
+        this.checkIndex(index);
+        this.im[index] = imag;
+    }
+
+    public void multiplyBy(int index, double real, double imag) {
+        this.checkIndex(index);
+        double r = this.re[index];
+        double i = this.im[index];
+        this.re[index] = real*r - imag*i;
+        this.im[index] = r*imag + i*real;
+    }
+
+    public void swap(int index1, int index2) {
+        this.checkIndex(index1);
+        this.checkIndex(index2);
+        double tmpX = this.re[index1];
+        double tmpY = this.im[index1];
+        this.re[index1] = this.re[index2];
+        this.im[index1] = this.im[index2];
+        this.re[index2] = tmpX;
+        this.im[index2] = tmpY;
+    }
+
+    private void checkRange(int fromIndex, int length) {
+        if (fromIndex < 0 || length < 0 || fromIndex > this.size - length){
+            throw new IndexOutOfBoundsException(
+                    "From: " + fromIndex + ", Length: " + length
+                            + ", Size: " + this.size);
+        }
+    }
+
+    /*
+    Copies length values, starting at fromIndex, into reDest and
+    imDest starting at destPos. Together with setValues this lets
+    code outside this package, such as an FftEngine, work on plain
+    arrays without going through one element at a time.*/
+    public void getValues(int fromIndex, double [] reDest, double [] imDest,
+                          int destPos, int length) {
+        this.checkRange(fromIndex, length);
+        System.arraycopy(this.re, fromIndex, reDest, destPos, length);
+        System.arraycopy(this.im, fromIndex, imDest, destPos, length);
+    }
+
+    /*
+    Copies length values from reSrc and imSrc, starting at srcPos,
+    into this vector starting at fromIndex.*/
+    public void setValues(int fromIndex, double [] reSrc, double [] imSrc,
+                          int srcPos, int length) {
+        this.checkRange(fromIndex, length);
+        System.arraycopy(reSrc, srcPos, this.re, fromIndex, length);
+        System.arraycopy(imSrc, srcPos, this.im, fromIndex, length);
+    }
+
+    public double [] toRealArray() {
+        return Arrays.copyOf(this.re, this.size);
+    }
+
+    public double [] toImagArray() {
+        return Arrays.copyOf(this.im, this.size);
+    }
+
+    public ComplexVector copy() {
+        ComplexVector vector = new ComplexVector();
+        vector.re = Arrays.copyOf(this.re, this.size);
+        vector.im = Arrays.copyOf(this.im, this.size);
+        vector.size = this.size;
+        return vector;
+    }
+
+    public ComplexVectorView view(int offset, int length, int stride) {
+        return new ComplexVectorView(this, offset, length, stride);
+    }
+
+    public ComplexVectorView slice(int fromIndex, int toIndex) {
+        return new ComplexVectorView(this, fromIndex,
+                toIndex - fromIndex, 1);
+    }
+
+    public ComplexVectorView reversed() {
+        return new ComplexVectorView(this, this.size - 1, this.size, -1);
+    }
+
+    public Spliterator<ComplexValue> spliterator() {
+        return new ComplexVectorSpliterator(this, 0, this.size);
+    }
+
+    public Stream<ComplexValue> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    public Stream<ComplexValue> parallelStream() {
+        return StreamSupport.stream(this.spliterator(), true);
+    }
+
+    private DoubleStream doubleStream(int component) {
+        return StreamSupport.doubleStream(
+                new ComplexVectorSpliterator.Component(
+                        this, component, 0, this.size), false);
+    }
+
+    public DoubleStream realStream() {
+        return this.doubleStream(ComplexVectorSpliterator.Component.REAL);
+    }
+
+    public DoubleStream imagStream() {
+        return this.doubleStream(ComplexVectorSpliterator.Component.IMAG);
+    }
+
+    public DoubleStream absStream() {
+        return this.doubleStream(ComplexVectorSpliterator.Component.ABS);
+    }
+
+    public DoubleStream argStream() {
+        return this.doubleStream(ComplexVectorSpliterator.Component.ARG);
+    }
+
+    @Override
+    public String toString() {
+        if (this.isEmpty()){
+            return "[]";
+        }
+        StringBuilder str = new StringBuilder("[");
+        if (this.size < 100){
+            for (int i = 0; i < this.size; i++){
+                str.append(this.get(i).toString());
+                str.append((i < this.size - 1)? ", ": "]");
+            }
+        }else{
+            for (int i = 0; i < 5; i++){
+                str.append(this.get(i).toString());
+                str.append(", ");
+            }
+            str.append("..., ");
+            str.append(this.get(this.size - 1).toString()).append("]");
+        }
+        return str.toString();
+    }
+}
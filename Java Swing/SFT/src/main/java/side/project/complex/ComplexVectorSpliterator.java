@@ -0,0 +1,150 @@
+package side.project.complex;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+/*
+Spliterators over an index range of a ComplexVector. They split
+the range exactly in half, so parallel streams get balanced chunks
+all the way down, and they report SIZED and SUBSIZED so that
+operations like toArray can write straight into place.
+
+The elements handed out are immutable ComplexValues, which the JIT
+can usually scalar replace once the stream pipeline is inlined.*/
+class ComplexVectorSpliterator implements Spliterator<ComplexValue> {
+
+    static final int CHARACTERISTICS = Spliterator.ORDERED
+            | Spliterator.SIZED | Spliterator.SUBSIZED
+            | Spliterator.NONNULL;
+
+    private final ComplexVector vector;
+    private int index;
+    private final int fence;
+
+    ComplexVectorSpliterator(ComplexVector vector, int origin, int fence) {
+        this.vector = vector;
+        this.index = origin;
+        this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ComplexValue> action) {
+        if (this.index < this.fence){
+            int i = this.index++;
+            action.accept(new ComplexValue(
+                    this.vector.re[i], this.vector.im[i]));
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super ComplexValue> action) {
+        double [] re = this.vector.re;
+        double [] im = this.vector.im;
+        for (int i = this.index; i < this.fence; i++){
+            action.accept(new ComplexValue(re[i], im[i]));
+        }
+        this.index = this.fence;
+    }
+
+    @Override
+    public Spliterator<ComplexValue> trySplit() {
+        int lo = this.index;
+        int mid = (lo + this.fence) >>> 1;
+        if (lo >= mid){
+            return null;
+        }
+        this.index = mid;
+        return new ComplexVectorSpliterator(this.vector, lo, mid);
+    }
+
+    @Override
+    public long estimateSize() {
+        return this.fence - this.index;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+
+    /*
+    One double per element: the real part, the imaginary part, the
+    magnitude or the phase (in the same [0, 2 pi) range as
+    Complex.getArg).*/
+    static class Component implements Spliterator.OfDouble {
+
+        static final int REAL = 0;
+        static final int IMAG = 1;
+        static final int ABS = 2;
+        static final int ARG = 3;
+
+        private final ComplexVector vector;
+        private final int component;
+        private int index;
+        private final int fence;
+
+        Component(ComplexVector vector, int component,
+                  int origin, int fence) {
+            this.vector = vector;
+            this.component = component;
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        private double value(int i) {
+            double r = this.vector.re[i];
+            double im = this.vector.im[i];
+            switch (this.component){
+                case REAL:
+                    return r;
+                case IMAG:
+                    return im;
+                case ABS:
+                    return Math.sqrt(r*r + im*im);
+                default:
+                    return new ComplexValue(r, im).getArg();
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            if (this.index < this.fence){
+                action.accept(this.value(this.index++));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            for (int i = this.index; i < this.fence; i++){
+                action.accept(this.value(i));
+            }
+            this.index = this.fence;
+        }
+
+        @Override
+        public Spliterator.OfDouble trySplit() {
+            int lo = this.index;
+            int mid = (lo + this.fence) >>> 1;
+            if (lo >= mid){
+                return null;
+            }
+            this.index = mid;
+            return new Component(this.vector, this.component, lo, mid);
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.fence - this.index;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+}
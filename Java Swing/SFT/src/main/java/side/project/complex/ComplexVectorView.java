@@ -0,0 +1,136 @@
+package side.project.complex;
+
+/*
+Window into a ComplexVector that selects length elements starting
+at offset and stepping by stride. A negative stride walks
+backwards, so view(n - 1, n, -1) is the vector reversed.
+
+Nothing is copied: reads and writes go straight to the storage of
+the parent vector, so transforms, decimation and windowing can work
+on a sub-block in place.*/
+public class ComplexVectorView {
+
+    private final ComplexVector parent;
+    private final int offset;
+    private final int length;
+    private final int stride;
+
+    ComplexVectorView(ComplexVector parent,
+                      int offset, int length, int stride) {
+        checkBounds(parent.size, offset, length, stride);
+        this.parent = parent;
+        this.offset = offset;
+        this.length = length;
+        this.stride = stride;
+    }
+
+    static void checkBounds(int size, int offset, int length, int stride) {
+        if (stride == 0){
+            throw new IllegalArgumentException("The stride must not be 0.");
+        }
+        if (length < 0){
+            throw new IllegalArgumentException(
+                    "Negative view length: " + length);
+        }
+        if (length > 0){
+            long last = offset + (long)(length - 1)*stride;
+            if (offset < 0 || offset >= size || last < 0 || last >= size){
+                throw new IndexOutOfBoundsException(
+                        "View [offset: " + offset + ", length: " + length
+                                + ", stride: " + stride
+                                + "] does not fit in size " + size);
+            }
+        }
+    }
+
+    public ComplexVector getParent() {
+        return this.parent;
+    }
+
+    public int getOffset() {
+        return this.offset;
+    }
+
+    public int getStride() {
+        return this.stride;
+    }
+
+    public int size() {
+        return this.length;
+    }
+
+    private int index(int index) {
+        if (index < 0 || index >= this.length){
+            throw new IndexOutOfBoundsException(
+                    "Index: " + index + ", Size: " + this.length);
+        }
+        return this.offset + index*this.stride;
+    }
+
+    public double getReal(int index) {
+        return this.parent.re[this.index(index)];
+    }
+
+    public double getImag(int index) {
+        return this.parent.im[this.index(index)];
+    }
+
+    public Complex get(int index) {
+        int k = this.index(index);
+        return new Complex(this.parent.re[k], this.parent.im[k]);
+    }
+
+    public void set(int index, double real, double imag) {
+        int k = this.index(index);
+        this.parent.re[k] = real;
+        this.parent.im[k] = imag;
+    }
+
+    public void multiplyBy(double real) {
+        double [] re = this.parent.re;
+        double [] im = this.parent.im;
+        for (int i = 0, k = this.offset; i < this.length;
+             i++, k += this.stride){
+            re[k] *= real;
+            im[k] *= real;
+        }
+    }
+
+    /*
+    Multiplies each element by the matching weight, e.g. to apply
+    a window function to this block of the signal.*/
+    public void multiplyBy(double [] weights) {
+        if (weights.length != this.length){
+            throw new UnequalArrayLengthsException();
+        }
+        double [] re = this.parent.re;
+        double [] im = this.parent.im;
+        for (int i = 0, k = this.offset; i < this.length;
+             i++, k += this.stride){
+            re[k] *= weights[i];
+            im[k] *= weights[i];
+        }
+    }
+
+    public ComplexVectorView view(int offset, int length, int stride) {
+        checkBounds(this.length, offset, length, stride);
+        return new ComplexVectorView(this.parent,
+                this.offset + offset*this.stride,
+                length, stride*this.stride);
+    }
+
+    public ComplexVector copy() {
+        ComplexVector vector = new ComplexVector(this.length);
+        for (int i = 0, k = this.offset; i < this.length;
+             i++, k += this.stride){
+            vector.re[i] = this.parent.re[k];
+            vector.im[i] = this.parent.im[k];
+        }
+        return vector;
+    }
+
+    @Override
+    public String toString() {
+        return this.copy().toString();
+    }
+}
@@ -0,0 +1,438 @@
+package side.project.complex;
+
+/*
+Bulk arithmetic and reductions on whole ComplexVectors.
+
+Every operation has two forms: one that writes the result into
+its first argument (addBy, multiplyBy, ...), matching the in place
+methods of Complex, and one that writes into an explicit
+destination vector (add, multiply, ...). The destination must
+already have the right size, and it may be one of the inputs.
+
+The loops work on the primitive storage directly and create no
+objects. Vectors longer than the parallel threshold are split
+over the common fork join pool.
+
+Sums are accumulated with compensated (Neumaier) summation, and
+since the partial results are always combined in the same order
+the reductions are deterministic.*/
+public final class ComplexVectors {
+
+    private static volatile int parallelThreshold = 1 << 15;
+
+    private ComplexVectors() {}
+
+    public static int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /*
+    Sets the length above which operations run in parallel. Use
+    Integer.MAX_VALUE to always stay on the calling thread.*/
+    public static void setParallelThreshold(int threshold) {
+        if (threshold < 1){
+            throw new IllegalArgumentException(
+                    "The threshold must be positive: " + threshold);
+        }
+        parallelThreshold = threshold;
+    }
+
+    /*
+    Which implementation of the inner loops is in use: "scalar", or
+    "vector(...)" with the SIMD species when the JDK Vector API is
+    available.*/
+    public static String getKernelName() {
+        return ComplexKernels.INSTANCE.name();
+    }
+
+    private static void checkSizes(ComplexVector a, ComplexVector b) {
+        if (a.size != b.size){
+            throw new UnequalArrayLengthsException();
+        }
+    }
+
+    private static void run(int n, ParallelRange.Body body) {
+        ParallelRange.forEach(n, parallelThreshold, body);
+    }
+
+    public static void add(final ComplexVector a, final ComplexVector b,
+                           final ComplexVector dest) {
+        checkSizes(a, b);
+        checkSizes(a, dest);
+        run(a.size, (from, to) -> {
+            for (int i = from; i < to; i++){
+                dest.re[i] = a.re[i] + b.re[i];
+                dest.im[i] = a.im[i] + b.im[i];
+            }
+        });
+    }
+
+    public static void addBy(ComplexVector a, ComplexVector b) {
+        add(a, b, a);
+    }
+
+    public static void subtract(final ComplexVector a, final ComplexVector b,
+                                final ComplexVector dest) {
+        checkSizes(a, b);
+        checkSizes(a, dest);
+        run(a.size, (from, to) -> {
+            for (int i = from; i < to; i++){
+                dest.re[i] = a.re[i] - b.re[i];
+                dest.im[i] = a.im[i] - b.im[i];
+            }
+        });
+    }
+
+    public static void subtractBy(ComplexVector a, ComplexVector b) {
+        subtract(a, b, a);
+    }
+
+    public static void multiply(final ComplexVector a, final ComplexVector b,
+                                final ComplexVector dest) {
+        checkSizes(a, b);
+        checkSizes(a, dest);
+        run(a.size, (from, to) -> ComplexKernels.INSTANCE.multiply(
+                a.re, a.im, b.re, b.im, dest.re, dest.im, from, to));
+    }
+
+    public static void multiplyBy(ComplexVector a, ComplexVector b) {
+        multiply(a, b, a);
+    }
+
+    /*
+    Throws DivisionByZeroException, before anything is written to
+    dest, if any element of b is zero.*/
+    public static void divide(final ComplexVector a, final ComplexVector b,
+                              final ComplexVector dest) {
+        checkSizes(a, b);
+        checkSizes(a, dest);
+        for (int i = 0; i < b.size; i++){
+            if (b.re[i]*b.re[i] + b.im[i]*b.im[i] == 0.0){
+                throw new DivisionByZeroException();
+            }
+        }
+        run(a.size, (from, to) -> {
+            double abs2, re, im;
+            for (int i = from; i < to; i++){
+                abs2 = b.re[i]*b.re[i] + b.im[i]*b.im[i];
+                re = (a.re[i]*b.re[i] + a.im[i]*b.im[i])/abs2;
+                im = (a.im[i]*b.re[i] - a.re[i]*b.im[i])/abs2;
+                dest.re[i] = re;
+                dest.im[i] = im;
+            }
+        });
+    }
+
+    public static void divideBy(ComplexVector a, ComplexVector b) {
+        divide(a, b, a);
+    }
+
+    public static void scale(final ComplexVector a,
+                             final double real, final double imag,
+                             final ComplexVector dest) {
+        checkSizes(a, dest);
+        run(a.size, (from, to) -> {
+            double re;
+            for (int i = from; i < to; i++){
+                re = a.re[i];
+                dest.re[i] = real*re - imag*a.im[i];
+                dest.im[i] = re*imag + a.im[i]*real;
+            }
+        });
+    }
+
+    public static void scaleBy(ComplexVector a, double real, double imag) {
+        scale(a, real, imag, a);
+    }
+
+    public static void scale(final ComplexVector a, final double real,
+                             final ComplexVector dest) {
+        checkSizes(a, dest);
+        run(a.size, (from, to) -> {
+            for (int i = from; i < to; i++){
+                dest.re[i] = real*a.re[i];
+                dest.im[i] = real*a.im[i];
+            }
+        });
+    }
+
+    public static void scaleBy(ComplexVector a, double real) {
+        scale(a, real, a);
+    }
+
+    public static void conjugate(final ComplexVector a,
+                                 final ComplexVector dest) {
+        checkSizes(a, dest);
+        run(a.size, (from, to) -> {
+            for (int i = from; i < to; i++){
+                dest.re[i] = a.re[i];
+                dest.im[i] = -a.im[i];
+            }
+        });
+    }
+
+    public static void conjugate(ComplexVector a) {
+        conjugate(a, a);
+    }
+
+    /*
+    dest = acc + a*b, element by element.*/
+    public static void multiplyAdd(final ComplexVector acc,
+                                   final ComplexVector a,
+                                   final ComplexVector b,
+                                   final ComplexVector dest) {
+        checkSizes(acc, a);
+        checkSizes(acc, b);
+        checkSizes(acc, dest);
+        run(acc.size, (from, to) -> {
+            double re, im;
+            for (int i = from; i < to; i++){
+                re = acc.re[i] + a.re[i]*b.re[i] - a.im[i]*b.im[i];
+                im = acc.im[i] + a.im[i]*b.re[i] + a.re[i]*b.im[i];
+                dest.re[i] = re;
+                dest.im[i] = im;
+            }
+        });
+    }
+
+    /*
+    acc += a*b, element by element.*/
+    public static void multiplyAddBy(ComplexVector acc,
+                                     ComplexVector a, ComplexVector b) {
+        multiplyAdd(acc, a, b, acc);
+    }
+
+    /*
+    Multiplies a by the twiddle factors stored as separate cosine
+    and sine tables, i.e. dest[i] = a[i]*(cos[i] + i sin[i]). This
+    avoids building a complex vector just to hold the twiddles.*/
+    public static void multiplyByTwiddles(final ComplexVector a,
+                                          final double [] cos,
+                                          final double [] sin,
+                                          final ComplexVector dest) {
+        checkSizes(a, dest);
+        if (cos.length < a.size || sin.length < a.size){
+            throw new UnequalArrayLengthsException();
+        }
+        run(a.size, (from, to) -> {
+            double re;
+            for (int i = from; i < to; i++){
+                re = a.re[i];
+                dest.re[i] = cos[i]*re - sin[i]*a.im[i];
+                dest.im[i] = re*sin[i] + a.im[i]*cos[i];
+            }
+        });
+    }
+
+    public static void multiplyByTwiddles(ComplexVector a,
+                                          double [] cos, double [] sin) {
+        multiplyByTwiddles(a, cos, sin, a);
+    }
+
+    private static void checkSizes(ComplexFloatVector a,
+                                   ComplexFloatVector b) {
+        if (a.size != b.size){
+            throw new UnequalArrayLengthsException();
+        }
+    }
+
+    public static void add(final ComplexFloatVector a,
+                           final ComplexFloatVector b,
+                           final ComplexFloatVector dest) {
+        checkSizes(a, b);
+        checkSizes(a, dest);
+        run(a.size, (from, to) -> {
+            for (int i = from; i < to; i++){
+                dest.re[i] = a.re[i] + b.re[i];
+                dest.im[i] = a.im[i] + b.im[i];
+            }
+        });
+    }
+
+    public static void multiply(final ComplexFloatVector a,
+                                final ComplexFloatVector b,
+                                final ComplexFloatVector dest) {
+        checkSizes(a, b);
+        checkSizes(a, dest);
+        run(a.size, (from, to) -> {
+            double re, im;
+            for (int i = from; i < to; i++){
+                re = (double)a.re[i]*b.re[i] - (double)a.im[i]*b.im[i];
+                im = (double)a.im[i]*b.re[i] + (double)a.re[i]*b.im[i];
+                dest.re[i] = (float)re;
+                dest.im[i] = (float)im;
+            }
+        });
+    }
+
+    public static void scale(final ComplexFloatVector a,
+                             final double real, final double imag,
+                             final ComplexFloatVector dest) {
+        checkSizes(a, dest);
+        run(a.size, (from, to) -> {
+            double re;
+            for (int i = from; i < to; i++){
+                re = a.re[i];
+                dest.re[i] = (float)(real*re - imag*a.im[i]);
+                dest.im[i] = (float)(re*imag + a.im[i]*real);
+            }
+        });
+    }
+
+    private static final class ComplexSum {
+        final CompensatedSum re = new CompensatedSum();
+        final CompensatedSum im = new CompensatedSum();
+
+        ComplexSum merge(ComplexSum other) {
+            this.re.merge(other.re);
+            this.im.merge(other.im);
+            return this;
+        }
+
+        ComplexValue value() {
+            return new ComplexValue(this.re.value(), this.im.value());
+        }
+    }
+
+    private static ComplexSum sumOf(int n, ParallelRange.Partial<ComplexSum> body) {
+        return ParallelRange.reduce(n, parallelThreshold, body,
+                ComplexSum::merge);
+    }
+
+    private static double sumOfReals(int n,
+                                     ParallelRange.Partial<CompensatedSum> body) {
+        return ParallelRange.reduce(n, parallelThreshold, body,
+                CompensatedSum::merge).value();
+    }
+
+    public static ComplexValue sum(final ComplexVector a) {
+        return sumOf(a.size, (from, to) -> {
+            ComplexSum sum = new ComplexSum();
+            for (int i = from; i < to; i++){
+                sum.re.add(a.re[i]);
+                sum.im.add(a.im[i]);
+            }
+            return sum;
+        }).value();
+    }
+
+    /*
+    Mean of all the points, e.g. the centre of a sketched path.*/
+    public static ComplexValue centroid(ComplexVector a) {
+        if (a.size == 0){
+            throw new DivisionByZeroException();
+        }
+        return sum(a).divide(a.size);
+    }
+
+    /*
+    Sum of a[i]*b[i], without conjugation.*/
+    public static ComplexValue dot(final ComplexVector a,
+                                   final ComplexVector b) {
+        checkSizes(a, b);
+        return sumOf(a.size, (from, to) -> {
+            ComplexSum sum = new ComplexSum();
+            for (int i = from; i < to; i++){
+                sum.re.add(a.re[i]*b.re[i] - a.im[i]*b.im[i]);
+                sum.im.add(a.im[i]*b.re[i] + a.re[i]*b.im[i]);
+            }
+            return sum;
+        }).value();
+    }
+
+    /*
+    Sum of conj(a[i])*b[i], the usual inner product of complex
+    vectors.*/
+    public static ComplexValue hermitianDot(final ComplexVector a,
+                                            final ComplexVector b) {
+        checkSizes(a, b);
+        return sumOf(a.size, (from, to) -> {
+            ComplexSum sum = new ComplexSum();
+            for (int i = from; i < to; i++){
+                sum.re.add(a.re[i]*b.re[i] + a.im[i]*b.im[i]);
+                sum.im.add(a.re[i]*b.im[i] - a.im[i]*b.re[i]);
+            }
+            return sum;
+        }).value();
+    }
+
+    /*
+    Sum of |a[i]|^2. By Parseval's theorem the energy of a signal
+    is n times the energy of its unnormalized transform.*/
+    public static double energy(final ComplexVector a) {
+        return sumOfReals(a.size, (from, to) -> {
+            CompensatedSum sum = new CompensatedSum();
+            for (int i = from; i < to; i++){
+                sum.add(a.re[i]*a.re[i] + a.im[i]*a.im[i]);
+            }
+            return sum;
+        });
+    }
+
+    public static double norm1(final ComplexVector a) {
+        return sumOfReals(a.size, (from, to) -> {
+            CompensatedSum sum = new CompensatedSum();
+            for (int i = from; i < to; i++){
+                sum.add(Math.sqrt(a.re[i]*a.re[i] + a.im[i]*a.im[i]));
+            }
+            return sum;
+        });
+    }
+
+    public static double norm2(ComplexVector a) {
+        return Math.sqrt(energy(a));
+    }
+
+    /*
+    L2 norm of a - b, computed without building the difference,
+    e.g. to measure how far a reconstructed path is from the
+    original.*/
+    public static double distance(final ComplexVector a,
+                                  final ComplexVector b) {
+        checkSizes(a, b);
+        return Math.sqrt(sumOfReals(a.size, (from, to) -> {
+            CompensatedSum sum = new CompensatedSum();
+            double dRe, dIm;
+            for (int i = from; i < to; i++){
+                dRe = a.re[i] - b.re[i];
+                dIm = a.im[i] - b.im[i];
+                sum.add(dRe*dRe + dIm*dIm);
+            }
+            return sum;
+        }));
+    }
+
+    private static final class Max {
+        double abs2 = -1.0;
+        int index = -1;
+
+        Max merge(Max other) {
+            // Ties go to the lower index, which is always on the left.
+            return (other.abs2 > this.abs2)? other: this;
+        }
+    }
+
+    /*
+    Index of the element with the largest magnitude, the first one
+    if there are several, or -1 if the vector is empty.*/
+    public static int argMaxAbs(final ComplexVector a) {
+        return ParallelRange.reduce(a.size, parallelThreshold,
+                (from, to) -> {
+                    Max max = new Max();
+                    double abs2;
+                    for (int i = from; i < to; i++){
+                        abs2 = a.re[i]*a.re[i] + a.im[i]*a.im[i];
+                        if (abs2 > max.abs2){
+                            max.abs2 = abs2;
+                            max.index = i;
+                        }
+                    }
+                    return max;
+                }, Max::merge).index;
+    }
+
+    public static double maxAbs(ComplexVector a) {
+        int i = argMaxAbs(a);
+        return (i < 0)? 0.0: Math.sqrt(a.re[i]*a.re[i] + a.im[i]*a.im[i]);
+    }
+}
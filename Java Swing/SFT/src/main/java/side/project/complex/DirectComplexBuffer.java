@@ -0,0 +1,193 @@
+package side.project.complex;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+/*
+Fixed size vector of complex numbers that lives outside of the
+Java heap. The real and imaginary parts are kept in two direct
+DoubleBuffers (split layout, like ComplexVector), so even signals
+with millions of samples add nothing for the garbage collector to
+trace or copy.
+
+The memory is released as soon as close() is called, instead of
+whenever the buffers happen to be collected. Using the buffer
+after it has been closed throws an IllegalStateException.
+
+A buffer has a single owner, which must not close it while it is
+still in use. The methods here and the transforms and functions
+that take a buffer only check that it is open when they start, and
+do not lock, so closing it from another thread during a get, a set
+or a transform frees the memory under them and can crash the JVM.
+Hand the buffer to other threads only for work that ends before
+the owner closes it.*/
+public class DirectComplexBuffer implements AutoCloseable {
+
+    private final int size;
+    private ByteBuffer reBytes;
+    private ByteBuffer imBytes;
+    // Package private so that the transforms and functions
+    // in this package can use absolute get/put on them.
+    DoubleBuffer re;
+    DoubleBuffer im;
+
+    // A direct ByteBuffer holds at most Integer.MAX_VALUE bytes.
+    public static final int MAX_SIZE = Integer.MAX_VALUE/Double.BYTES;
+
+    public DirectComplexBuffer(int n) {
+        if (n < 0){
+            throw new IllegalArgumentException(
+                    "Negative buffer size: " + n);
+        }
+        if (n > MAX_SIZE){
+            throw new IllegalArgumentException("Buffer size " + n
+                    + " is larger than the maximum of " + MAX_SIZE);
+        }
+        this.size = n;
+        int bytes = Math.multiplyExact(n, Double.BYTES);
+        this.reBytes = ByteBuffer.allocateDirect(bytes)
+                .order(ByteOrder.nativeOrder());
+        this.imBytes = ByteBuffer.allocateDirect(bytes)
+                .order(ByteOrder.nativeOrder());
+        this.re = this.reBytes.asDoubleBuffer();
+        this.im = this.imBytes.asDoubleBuffer();
+    }
+
+    public static DirectComplexBuffer fromComplexVector(ComplexVector vector) {
+        DirectComplexBuffer buffer = new DirectComplexBuffer(vector.size);
+        buffer.re.put(vector.re, 0, vector.size).clear();
+        buffer.im.put(vector.im, 0, vector.size).clear();
+        return buffer;
+    }
+
+    public static DirectComplexBuffer fromComplexArray(ComplexArray array) {
+        DirectComplexBuffer buffer = new DirectComplexBuffer(array.size());
+        for (int i = 0; i < array.size(); i++){
+            buffer.re.put(i, array.get(i).getReal());
+            buffer.im.put(i, array.get(i).getImag());
+        }
+        return buffer;
+    }
+
+    public ComplexVector toComplexVector() {
+        this.checkOpen();
+        ComplexVector vector = new ComplexVector(this.size);
+        this.re.get(vector.re, 0, this.size).clear();
+        this.im.get(vector.im, 0, this.size).clear();
+        return vector;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isOpen() {
+        return this.re != null;
+    }
+
+    void checkOpen() {
+        if (this.re == null){
+            throw new IllegalStateException(
+                    "The buffer has already been freed.");
+        }
+    }
+
+    public double getReal(int index) {
+        this.checkOpen();
+        return this.re.get(index);
+    }
+
+    public double getImag(int index) {
+        this.checkOpen();
+        return this.im.get(index);
+    }
+
+    public Complex get(int index) {
+        this.checkOpen();
+        return new Complex(this.re.get(index), this.im.get(index));
+    }
+
+    public void set(int index, double real, double imag) {
+        this.checkOpen();
+        this.re.put(index, real);
+        this.im.put(index, imag);
+    }
+
+    /*
+    Releases the native memory straight away. On JDKs that expose
+    Unsafe.invokeCleaner (9 and later) this frees the memory
+    immediately, on older ones the buffers are only dropped and
+    freed with the next collection. Only the owner may call it, once
+    no other thread is using the buffer.*/
+    @Override
+    public void close() {
+        if (this.re == null){
+            return;
+        }
+        this.re = null;
+        this.im = null;
+        freeDirect(this.reBytes);
+        freeDirect(this.imBytes);
+        this.reBytes = null;
+        this.imBytes = null;
+    }
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod(
+                    "invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private static void freeDirect(ByteBuffer buffer) {
+        if (INVOKE_CLEANER != null){
+            try {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } catch (ReflectiveOperationException e) {
+                // Leave it to the garbage collector.
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (this.re == null){
+            return "DirectComplexBuffer(freed)";
+        }
+        if (this.size == 0){
+            return "[]";
+        }
+        StringBuilder str = new StringBuilder("[");
+        if (this.size < 100){
+            for (int i = 0; i < this.size; i++){
+                str.append(this.get(i).toString());
+                str.append((i < this.size - 1)? ", ": "]");
+            }
+        }else{
+            for (int i = 0; i < 5; i++){
+                str.append(this.get(i).toString());
+                str.append(", ");
+            }
+            str.append("..., ");
+            str.append(this.get(this.size - 1).toString()).append("]");
+        }
+        return str.toString();
+    }
+}
@@ -0,0 +1,136 @@
+package side.project.complex;
+
+import java.util.concurrent.ForkJoinPool;
+
+/*
+The discrete Fourier transform computed straight from its definition,
+
+    X[k] = scale * sum over j of x[j]*exp(2*pi*i*j*k/n)
+
+in O(n^2) time, without calling cos and sin in the inner loop.
+
+Since exp(2*pi*i*j*k/n) only depends on j*k mod n, a single table of
+the n values exp(2*pi*i*t/n) holds every factor. The index t is
+carried from one term to the next by adding k and wrapping at n, so
+it never overflows. The input is read in blocks that stay in cache
+while every output bin of a task consumes them, and the bins are
+spread over a fork join pool. Every bin adds its terms in the order
+of j whatever the blocking and the number of threads, so the result
+is always the same.
+
+The table is cached by size, and instances are immutable.*/
+final class DirectDFT {
+
+    private static final PlanCache<DirectDFT> CACHE = new PlanCache<>(8);
+    // Input values read by all the bins of a task before moving on,
+    // 16KB of re and im.
+    private static final int BLOCK = 1024;
+    // Multiply adds done by one task, enough to outweigh forking it.
+    private static final int TASK_SIZE = 1 << 16;
+
+    private final int n;
+    // wRe[t] + i wIm[t] = exp(2*pi*i*t/n)
+    private final double [] wRe;
+    private final double [] wIm;
+
+    private DirectDFT(int n) {
+        this.n = n;
+        this.wRe = new double[n];
+        this.wIm = new double[n];
+        double angle = Complex.TAU/n;
+        for (int t = 0; t < n; t++){
+            this.wRe[t] = Math.cos(angle*t);
+            this.wIm[t] = Math.sin(angle*t);
+        }
+    }
+
+    static DirectDFT forSize(int n) {
+        if (n < 1){
+            throw new IllegalArgumentException("Size must be positive: " + n);
+        }
+        DirectDFT dft = CACHE.get(n);
+        if (dft == null){
+            dft = CACHE.put(n, new DirectDFT(n));
+        }
+        return dft;
+    }
+
+    int size() {
+        return this.n;
+    }
+
+    /*
+    Writes the transform of (inRe, inIm), multiplied by scale, to
+    (outRe, outIm), which must be other arrays. A null pool runs
+    every bin on the calling thread.*/
+    void transform(final double [] inRe, final double [] inIm,
+                   final double [] outRe, final double [] outIm,
+                   final double scale, ForkJoinPool pool) {
+        sumBins(this.n, this.n, (jFrom, jTo, from, to, sumRe, sumIm) ->
+                this.block(inRe, inIm, jFrom, jTo, from, to, sumRe, sumIm),
+                outRe, outIm, scale, pool);
+    }
+
+    /*
+    Adds the terms j = jFrom, ..., jTo - 1 of the bins from, ...,
+    to - 1 to sumRe[b - from] and sumIm[b - from].*/
+    interface BlockSum {
+        void add(int jFrom, int jTo, int from, int to,
+                 double [] sumRe, double [] sumIm);
+    }
+
+    /*
+    Computes bins 0, ..., bins - 1 of a transform of length n, the
+    terms of each given by sum, and writes them multiplied by scale
+    to (outRe, outIm). The terms are added in blocks of BLOCK, and
+    groups of bins are spread over the pool, or run on the calling
+    thread if pool is null. Shared with SelectedDFT.*/
+    static void sumBins(final int n, int bins, final BlockSum sum,
+                        final double [] outRe, final double [] outIm,
+                        final double scale, ForkJoinPool pool) {
+        ParallelRange.Body body = (from, to) -> {
+            double [] sumRe = new double[to - from];
+            double [] sumIm = new double[to - from];
+            for (int jb = 0; jb < n; jb += BLOCK){
+                sum.add(jb, Math.min(n, jb + BLOCK), from, to, sumRe, sumIm);
+            }
+            for (int b = from; b < to; b++){
+                outRe[b] = scale*sumRe[b - from];
+                outIm[b] = scale*sumIm[b - from];
+            }
+        };
+        if (pool == null){
+            body.run(0, bins);
+        }
+        else{
+            ParallelRange.forEach(pool, bins, Math.max(1, TASK_SIZE/n), body);
+        }
+    }
+
+    /*
+    Adds the terms j = jFrom, ..., jTo - 1 of the bins from, ...,
+    to - 1 to their sums.*/
+    private void block(double [] re, double [] im, int jFrom, int jTo,
+                       int from, int to, double [] sumRe, double [] sumIm) {
+        int n = this.n;
+        double [] wRe = this.wRe, wIm = this.wIm;
+        double c, s, accRe, accIm;
+        for (int k = from; k < to; k++){
+            int t = (int)(((long)k*jFrom) % n);
+            accRe = sumRe[k - from];
+            accIm = sumIm[k - from];
+            for (int j = jFrom; j < jTo; j++){
+                c = wRe[t];
+                s = wIm[t];
+                accRe += re[j]*c - im[j]*s;
+                accIm += im[j]*c + re[j]*s;
+                t += k;
+                if (t >= n){
+                    t -= n;
+                }
+            }
+            sumRe[k - from] = accRe;
+            sumIm[k - from] = accIm;
+        }
+    }
+}
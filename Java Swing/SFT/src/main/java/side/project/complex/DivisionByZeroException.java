@@ -0,0 +1,7 @@
+package side.project.complex;
+
+/*
+Thrown when a complex number is divided by zero.*/
+public class DivisionByZeroException extends ArithmeticException {
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,32 @@
+package side.project.complex;
+
+import java.util.concurrent.ForkJoinPool;
+
+/*
+One way of computing the FFT. Engines all give the same unnormalized
+result as inPlaceFastFourierTransform, for the sizes they support,
+and differ only in speed, which depends on the size, the cache and
+the number of threads. FftPlanner times the engines it finds and
+picks the fastest for each size.
+
+Engines are found with ServiceLoader, so other implementations can be
+added by listing them in a META-INF/services/side.project.complex.FftEngine
+file on the class path. Implementations must be thread safe and have
+a public no argument constructor. The storage of a ComplexVector is
+only open to this package, so engines from elsewhere copy the values
+out and back with getValues and setValues.*/
+public interface FftEngine {
+
+    String name();
+
+    boolean supports(int n);
+
+    /*
+    Transforms the vector in place. Engines that can use several
+    threads run them on pool; the others ignore it.*/
+    void transform(ComplexVector vector, ForkJoinPool pool);
+
+    default void transform(ComplexVector vector) {
+        this.transform(vector, ForkJoinPool.commonPool());
+    }
+}
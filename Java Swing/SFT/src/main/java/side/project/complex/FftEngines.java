@@ -0,0 +1,170 @@
+package side.project.complex;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+The engines that come with this package, one for each transform of
+FourierTransform. They are listed in the services file in
+src/main/resources, and builtIn returns them as well in case the
+file is not on the class path.*/
+public final class FftEngines {
+
+    private FftEngines() {}
+
+    static List<FftEngine> builtIn() {
+        return Collections.unmodifiableList(Arrays.asList(
+                new Plan(), new Radix4(), new Stockham(), new FourStep(),
+                new ParallelFourStep(), new Bluestein(), new Direct()));
+    }
+
+    private static boolean isPowerOfTwo(int n) {
+        return n > 0 && (n & (n - 1)) == 0;
+    }
+
+    /*
+    The cached FftPlan: radix-2 for powers of two, mixed radix or
+    Bluestein otherwise. Supports every size.*/
+    public static final class Plan implements FftEngine {
+
+        @Override
+        public String name() {
+            return "plan";
+        }
+
+        @Override
+        public boolean supports(int n) {
+            return n > 0;
+        }
+
+        @Override
+        public void transform(ComplexVector vector, ForkJoinPool pool) {
+            FftPlan.forSize(vector.size).transform(vector);
+        }
+    }
+
+    /*
+    The cached Radix4FFT, for powers of two.*/
+    public static final class Radix4 implements FftEngine {
+
+        @Override
+        public String name() {
+            return "radix-4";
+        }
+
+        @Override
+        public boolean supports(int n) {
+            return isPowerOfTwo(n);
+        }
+
+        @Override
+        public void transform(ComplexVector vector, ForkJoinPool pool) {
+            Radix4FFT.forSize(vector.size, 1).transform(vector.re,
+                    vector.im);
+        }
+    }
+
+    public static final class Stockham implements FftEngine {
+
+        @Override
+        public String name() {
+            return "stockham";
+        }
+
+        @Override
+        public boolean supports(int n) {
+            return isPowerOfTwo(n);
+        }
+
+        @Override
+        public void transform(ComplexVector vector, ForkJoinPool pool) {
+            FourierTransform.outOfPlaceFastFourierTransform(vector, vector);
+        }
+    }
+
+    public static final class FourStep implements FftEngine {
+
+        @Override
+        public String name() {
+            return "four-step";
+        }
+
+        @Override
+        public boolean supports(int n) {
+            return isPowerOfTwo(n);
+        }
+
+        @Override
+        public void transform(ComplexVector vector, ForkJoinPool pool) {
+            FourierTransform.inPlaceFourStepFastFourierTransform(vector);
+        }
+    }
+
+    public static final class ParallelFourStep implements FftEngine {
+
+        @Override
+        public String name() {
+            return "parallel-four-step";
+        }
+
+        @Override
+        public boolean supports(int n) {
+            return isPowerOfTwo(n);
+        }
+
+        @Override
+        public void transform(ComplexVector vector, ForkJoinPool pool) {
+            FourierTransform.parallelFastFourierTransform(vector, pool);
+        }
+    }
+
+    /*
+    Bluestein's algorithm for every length that is not a power of
+    two, even when the mixed radix FFT would be chosen by FftPlan.*/
+    public static final class Bluestein implements FftEngine {
+
+        @Override
+        public String name() {
+            return "bluestein";
+        }
+
+        @Override
+        public boolean supports(int n) {
+            return n > 0 && !isPowerOfTwo(n);
+        }
+
+        @Override
+        public void transform(ComplexVector vector, ForkJoinPool pool) {
+            BluesteinFFT.forSize(vector.size, 1).transform(vector.re,
+                    vector.im, vector.re, vector.im);
+        }
+    }
+
+    /*
+    The O(n^2) transform from the definition. It only has a chance
+    against the FFTs for very small sizes, so larger ones are not
+    offered to the planner.*/
+    public static final class Direct implements FftEngine {
+
+        private static final int MAX_SIZE = 256;
+
+        @Override
+        public String name() {
+            return "dft";
+        }
+
+        @Override
+        public boolean supports(int n) {
+            return n > 0 && n <= MAX_SIZE;
+        }
+
+        @Override
+        public void transform(ComplexVector vector, ForkJoinPool pool) {
+            int n = vector.size;
+            DirectDFT.forSize(n).transform(vector.re.clone(),
+                    vector.im.clone(), vector.re, vector.im, 1.0, null);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package side.project.complex;
+
+import java.util.concurrent.ForkJoinPool;
+
+/*
+Everything needed to transform signals of one length in one
+direction, computed once and reused by every transform:
+
+    - for powers of two, the bit reversal permutation and the twiddle
+      factors of every radix-2 stage, laid out so each stage reads
+      them in order
+    - for other lengths, the mixed radix or Bluestein engine with its
+      own tables
+    - scratch buffers, one set per thread
+
+Transforming thousands of signals of the same size with one plan
+therefore allocates nothing after the first call on each thread.
+
+Plans are immutable apart from the per thread scratch, so a single
+plan can be shared by any number of threads. forSize keeps the most
+recently used plans in a small global cache.
+
+The transforms are unnormalized:
+
+    FORWARD: X[k] = sum over j of x[j]*exp(2*pi*i*j*k/n)
+    INVERSE: x[j] = sum over k of X[k]*exp(-2*pi*i*j*k/n)
+
+FORWARD matches inPlaceFastFourierTransform.*/
+public final class FftPlan {
+
+    public enum Direction {
+        FORWARD(1), INVERSE(-1);
+
+        final int sign;
+
+        Direction(int sign) {
+            this.sign = sign;
+        }
+    }
+
+    private static final PlanCache<FftPlan> CACHE = new PlanCache<>(32);
+    // Values transformed by one task of a batch, enough to outweigh
+    // the cost of forking it.
+    private static final int BATCH_TASK_SIZE = 1 << 14;
+
+    private final int n;
+    private final Direction direction;
+    private final boolean powerOfTwo;
+    // Pairs (i, rev(i)) with i < rev(i), flattened. These and the
+    // stage tables are also used by the transforms in FourierTransform
+    // that work on other storage.
+    final int [] swaps;
+    // Twiddle factors of the radix-2 stage with half size 2^s.
+    final double [][] stageRe;
+    final double [][] stageIm;
+    private final StockhamFFT stockham;
+    private final MixedRadixFFT mixedRadix;
+    private final BluesteinFFT bluestein;
+    private final ThreadLocal<double [][]> scratch;
+
+    private FftPlan(int n, Direction direction) {
+        this.n = n;
+        this.direction = direction;
+        this.powerOfTwo = (n & (n - 1)) == 0;
+        int sign = direction.sign;
+        if (this.powerOfTwo){
+            int stages = Integer.numberOfTrailingZeros(n);
+            this.swaps = bitReversalSwaps(n);
+            this.stageRe = new double[stages][];
+            this.stageIm = new double[stages][];
+            for (int s = 0; s < stages; s++){
+                int half = 1 << s;
+                double angle = sign*Math.PI/half;
+                this.stageRe[s] = new double[half];
+                this.stageIm[s] = new double[half];
+                for (int k = 0; k < half; k++){
+                    this.stageRe[s][k] = Math.cos(angle*k);
+                    this.stageIm[s][k] = Math.sin(angle*k);
+                }
+            }
+            this.stockham = new StockhamFFT(n, sign);
+            this.mixedRadix = null;
+            this.bluestein = null;
+        }
+        else{
+            this.swaps = null;
+            this.stageRe = null;
+            this.stageIm = null;
+            this.stockham = null;
+            if (MixedRadixFFT.largestPrimeFactor(n)
+                    > FourierTransform.BLUESTEIN_THRESHOLD){
+                this.mixedRadix = null;
+                this.bluestein = BluesteinFFT.forSize(n, sign);
+            }
+            else{
+                this.mixedRadix = new MixedRadixFFT(n, sign);
+                this.bluestein = null;
+            }
+        }
+        int work = (this.bluestein != null)? this.bluestein.workSize():
+                (this.mixedRadix != null)? this.mixedRadix.tempSize(): 0;
+        this.scratch = ThreadLocal.withInitial(() -> new double[][] {
+                new double[n], new double[n], new double[n], new double[n],
+                new double[work], new double[work]});
+    }
+
+    public static FftPlan forSize(int n) {
+        return forSize(n, Direction.FORWARD);
+    }
+
+    /*
+    The plan for length n and the given direction, from the cache
+    when possible.*/
+    public static FftPlan forSize(int n, Direction direction) {
+        if (n < 1){
+            throw new IllegalArgumentException("Size must be positive: " + n);
+        }
+        long key = ((long)n << 1) | direction.ordinal();
+        FftPlan plan = CACHE.get(key);
+        if (plan == null){
+            plan = CACHE.put(key, new FftPlan(n, direction));
+        }
+        return plan;
+    }
+
+    private static int [] bitReversalSwaps(int n) {
+        int bits = Integer.numberOfTrailingZeros(n);
+        int count = 0;
+        int [] rev = new int[n];
+        for (int i = 0; i < n; i++){
+            rev[i] = (bits == 0)? 0: Integer.reverse(i) >>> (32 - bits);
+            if (rev[i] > i){
+                count++;
+            }
+        }
+        int [] swaps = new int[2*count];
+        int k = 0;
+        for (int i = 0; i < n; i++){
+            if (rev[i] > i){
+                swaps[k++] = i;
+                swaps[k++] = rev[i];
+            }
+        }
+        return swaps;
+    }
+
+    public int size() {
+        return this.n;
+    }
+
+    public Direction direction() {
+        return this.direction;
+    }
+
+    private void checkSize(ComplexVector vector) {
+        if (vector.size != this.n){
+            throw new IllegalArgumentException("Plan for size " + this.n
+                    + " used with size " + vector.size);
+        }
+    }
+
+    /*
+    Transforms the vector in place.*/
+    public void transform(ComplexVector vector) {
+        this.checkSize(vector);
+        this.transform(vector.re, vector.im, 0);
+    }
+
+    /*
+    Writes the transform of src to dest, leaving src untouched
+    unless it is dest.*/
+    public void transform(ComplexVector src, ComplexVector dest) {
+        this.checkSize(src);
+        this.checkSize(dest);
+        double [][] buffers = this.scratch.get();
+        if (this.powerOfTwo){
+            double [] inRe = src.re, inIm = src.im;
+            if (src == dest){
+                inRe = buffers[2];
+                inIm = buffers[3];
+                System.arraycopy(src.re, 0, inRe, 0, this.n);
+                System.arraycopy(src.im, 0, inIm, 0, this.n);
+            }
+            this.stockham.transform(inRe, inIm, dest.re, dest.im,
+                    buffers[0], buffers[1]);
+        }
+        else if (src == dest){
+            this.transform(dest.re, dest.im, 0);
+        }
+        else if (this.mixedRadix != null){
+            this.mixedRadix.transform(src.re, src.im, dest.re, dest.im,
+                    buffers[4], buffers[5]);
+        }
+        else{
+            this.bluestein.transform(src.re, src.im, dest.re, dest.im,
+                    buffers[4], buffers[5]);
+        }
+    }
+
+    /*
+    Transforms in place each of the batch.size()/n signals of length
+    n stored one after the other in batch. The signals are
+    independent, so they are spread over the pool in groups, and
+    each thread uses its own scratch with the shared tables. For
+    small n this keeps every thread busy, where splitting a single
+    transform could not. The result is the same as transforming the
+    signals one by one.*/
+    public void transformBatch(ComplexVector batch, ForkJoinPool pool) {
+        final int n = this.n;
+        if (batch.size % n != 0){
+            throw new IllegalArgumentException("Plan for size " + n
+                    + " used with a batch of size " + batch.size);
+        }
+        final double [] re = batch.re, im = batch.im;
+        ParallelRange.forEach(pool, batch.size/n,
+                Math.max(1, BATCH_TASK_SIZE/n), (from, to) -> {
+            for (int s = from; s < to; s++){
+                this.transform(re, im, s*n);
+            }
+        });
+    }
+
+    public void transformBatch(ComplexVector batch) {
+        this.transformBatch(batch, ForkJoinPool.commonPool());
+    }
+
+    /*
+    Transforms the n values of (re, im) starting at offset in place.*/
+    void transform(double [] re, double [] im, int offset) {
+        if (this.powerOfTwo){
+            this.radix2(re, im, offset);
+            return;
+        }
+        double [][] buffers = this.scratch.get();
+        double [] inRe = buffers[0], inIm = buffers[1];
+        System.arraycopy(re, offset, inRe, 0, this.n);
+        System.arraycopy(im, offset, inIm, 0, this.n);
+        if (this.mixedRadix != null){
+            this.mixedRadix.transform(inRe, inIm, buffers[2], buffers[3],
+                    buffers[4], buffers[5]);
+        }
+        else{
+            this.bluestein.transform(inRe, inIm, buffers[2], buffers[3],
+                    buffers[4], buffers[5]);
+        }
+        System.arraycopy(buffers[2], 0, re, offset, this.n);
+        System.arraycopy(buffers[3], 0, im, offset, this.n);
+    }
+
+    private void radix2(double [] re, double [] im, int offset) {
+        int [] swaps = this.swaps;
+        int a, b;
+        double tmp;
+        for (int k = 0; k < swaps.length; k += 2){
+            a = offset + swaps[k];
+            b = offset + swaps[k + 1];
+            tmp = re[a];
+            re[a] = re[b];
+            re[b] = tmp;
+            tmp = im[a];
+            im[a] = im[b];
+            im[b] = tmp;
+        }
+        for (int s = 0; s < this.stageRe.length; s++){
+            int half = 1 << s;
+            double [] wRe = this.stageRe[s], wIm = this.stageIm[s];
+            for (int j = 0; j < this.n; j += 2*half){
+                ComplexKernels.INSTANCE.butterflies(re, im,
+                        offset + j, offset + j + half, half, wRe, wIm);
+            }
+        }
+    }
+}
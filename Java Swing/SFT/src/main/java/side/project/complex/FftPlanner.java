@@ -0,0 +1,405 @@
+package side.project.complex;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+Picks the fastest FftEngine for a size by timing them, like the
+measure mode of FFTW.
+
+The first request for a size and number of threads runs every engine
+that supports the size a few times on a test signal, and keeps the
+one with the best time. Later requests return the same engine
+straight away. Measuring costs a few dozen transforms per engine,
+so it pays off when many transforms of the same size follow.
+Callers that cannot wait for it, such as the Swing app, use
+cachedOrDefault, which returns the FftPlan default for a new size
+and measures it on a background thread for later calls.
+
+The engines come from ServiceLoader, falling back to the ones in
+FftEngines when no services file is found.
+
+The choices, called wisdom as in FFTW, can be saved to a file and
+loaded again, so that short lived processes skip the measuring. The
+file has one tab separated line per choice:
+
+    cpu fingerprint, precision, threads, size, engine name
+
+and lines measured on other machines are kept but not used. When the
+system property side.project.complex.wisdom names a file, it is
+loaded when this class is first used, and every new choice is merged
+into it. Merging writes a temporary file next to it and moves it in
+place atomically, so readers never see half a file, and holds a file
+lock so that processes saving at the same time keep each other's
+lines.*/
+public final class FftPlanner {
+
+    // Runs that are not timed, to give the JIT a chance.
+    private static final int WARMUP_RUNS = 1;
+    private static final int MIN_RUNS = 3;
+    // Small sizes are timed until this much time has passed.
+    private static final long MIN_NANOS = 10_000_000L;
+
+    public static final String WISDOM_PROPERTY = "side.project.complex.wisdom";
+    // Only ComplexVector transforms are planned for now.
+    private static final String PRECISION = "double";
+
+    private static final List<FftEngine> ENGINES = loadEngines();
+    private static final ConcurrentHashMap<Long, FftEngine> CHOICES =
+            new ConcurrentHashMap<>();
+    private static final String FINGERPRINT = cpuFingerprint();
+    private static final Path WISDOM_FILE = wisdomFile();
+    private static final Object WISDOM_LOCK = new Object();
+
+    // Used for sizes that are not measured yet by cachedOrDefault.
+    private static final FftEngine DEFAULT = new FftEngines.Plan();
+    // Sizes waiting to be measured in the background, and the daemon
+    // thread measuring them one at a time.
+    private static final Set<Long> PENDING = ConcurrentHashMap.newKeySet();
+    private static final ExecutorService MEASURER =
+            Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, "FftPlanner measure");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    static {
+        if (WISDOM_FILE != null && Files.exists(WISDOM_FILE)){
+            try{
+                loadWisdom(WISDOM_FILE);
+            }
+            catch (IOException e){
+                // Without wisdom the sizes are simply measured again.
+            }
+        }
+    }
+
+    private FftPlanner() {}
+
+    private static List<FftEngine> loadEngines() {
+        List<FftEngine> engines = new ArrayList<>();
+        Iterator<FftEngine> it = ServiceLoader.load(FftEngine.class,
+                FftEngine.class.getClassLoader()).iterator();
+        while (true){
+            try{
+                if (!it.hasNext()){
+                    break;
+                }
+                engines.add(it.next());
+            }
+            catch (ServiceConfigurationError e){
+                // Skip a provider that cannot be loaded.
+            }
+        }
+        if (engines.isEmpty()){
+            return FftEngines.builtIn();
+        }
+        return Collections.unmodifiableList(engines);
+    }
+
+    public static List<FftEngine> engines() {
+        return ENGINES;
+    }
+
+    public static FftEngine forSize(int n) {
+        return forSize(n, ForkJoinPool.commonPool());
+    }
+
+    /*
+    The fastest engine for size n when running on pool, measured on
+    the first call for n and the parallelism of the pool.*/
+    public static FftEngine forSize(int n, ForkJoinPool pool) {
+        if (n < 1){
+            throw new IllegalArgumentException("Size must be positive: " + n);
+        }
+        long key = key(n, pool.getParallelism());
+        FftEngine engine = CHOICES.get(key);
+        if (engine == null){
+            engine = measure(n, pool);
+            FftEngine chosen = CHOICES.putIfAbsent(key, engine);
+            if (chosen != null){
+                engine = chosen;
+            }
+            else if (WISDOM_FILE != null){
+                try{
+                    saveWisdom(WISDOM_FILE);
+                }
+                catch (IOException e){
+                    // The choice is still used by this process.
+                }
+            }
+        }
+        return engine;
+    }
+
+    /*
+    The engine already chosen for size n on pool, by this process or
+    from the wisdom file. If there is none yet, the FftPlan default,
+    while the size is measured on a background thread so that later
+    calls get the fastest engine. Never waits for measuring.*/
+    public static FftEngine cachedOrDefault(final int n,
+                                            final ForkJoinPool pool) {
+        if (n < 1){
+            throw new IllegalArgumentException("Size must be positive: " + n);
+        }
+        final long key = key(n, pool.getParallelism());
+        FftEngine engine = CHOICES.get(key);
+        if (engine != null){
+            return engine;
+        }
+        if (PENDING.add(key)){
+            MEASURER.execute(() -> {
+                try{
+                    forSize(n, pool);
+                }
+                finally{
+                    PENDING.remove(key);
+                }
+            });
+        }
+        return DEFAULT;
+    }
+
+    private static long key(int n, int threads) {
+        return ((long)n << 32) | threads;
+    }
+
+    /*
+    Transform of any length with the fastest engine, scaled as norm
+    asks. Gives the same result as
+    FourierTransform.fastFourierTransform(vector, norm).*/
+    public static ComplexVector fastFourierTransform(ComplexVector vector,
+                                                     Normalization norm) {
+        int n = vector.size;
+        return transform(vector, norm, (n > 0)? forSize(n): null);
+    }
+
+    /*
+    Same as fastFourierTransform, but with cachedOrDefault, so it
+    never waits for a new size to be measured.*/
+    public static ComplexVector cachedFastFourierTransform(
+            ComplexVector vector, Normalization norm) {
+        int n = vector.size;
+        return transform(vector, norm, (n > 0)?
+                cachedOrDefault(n, ForkJoinPool.commonPool()): null);
+    }
+
+    private static ComplexVector transform(ComplexVector vector,
+                                           Normalization norm,
+                                           FftEngine engine) {
+        int n = vector.size;
+        ComplexVector FT = vector.copy();
+        if (n > 0){
+            engine.transform(FT);
+            FourierTransform.scale(FT, norm.forwardScale(n));
+        }
+        return FT;
+    }
+
+    private static FftEngine measure(int n, ForkJoinPool pool) {
+        ComplexVector signal = new ComplexVector(n);
+        for (int i = 0; i < n; i++){
+            signal.set(i, Math.sin(0.3*i), Math.cos(0.7*i));
+        }
+        ComplexVector work = new ComplexVector(n);
+        FftEngine best = null;
+        long bestTime = Long.MAX_VALUE;
+        for (FftEngine engine: ENGINES){
+            if (!engine.supports(n)){
+                continue;
+            }
+            long time = time(engine, signal, work, pool);
+            if (time < bestTime){
+                bestTime = time;
+                best = engine;
+            }
+        }
+        if (best == null){
+            throw new UnsupportedOperationException(
+                    "No FFT engine supports size " + n);
+        }
+        return best;
+    }
+
+    /*
+    Best time of one transform, in nanoseconds.*/
+    private static long time(FftEngine engine, ComplexVector signal,
+                             ComplexVector work, ForkJoinPool pool) {
+        int n = signal.size;
+        long best = Long.MAX_VALUE;
+        long spent = 0;
+        for (int run = 0; run < MIN_RUNS + WARMUP_RUNS || spent < MIN_NANOS;
+             run++){
+            System.arraycopy(signal.re, 0, work.re, 0, n);
+            System.arraycopy(signal.im, 0, work.im, 0, n);
+            long start = System.nanoTime();
+            engine.transform(work, pool);
+            long elapsed = System.nanoTime() - start;
+            if (run >= WARMUP_RUNS){
+                best = Math.min(best, elapsed);
+            }
+            spent += elapsed;
+        }
+        return best;
+    }
+
+    private static Path wisdomFile() {
+        String name = System.getProperty(WISDOM_PROPERTY);
+        return (name == null || name.isEmpty())? null: Paths.get(name);
+    }
+
+    /*
+    Identifies the machine the timings were made on: the architecture,
+    the number of processors and, on Linux, the CPU model.*/
+    static String cpuFingerprint() {
+        String model = "";
+        Path cpuinfo = Paths.get("/proc/cpuinfo");
+        if (Files.isReadable(cpuinfo)){
+            try (BufferedReader reader = Files.newBufferedReader(cpuinfo,
+                    StandardCharsets.UTF_8)){
+                String line;
+                while ((line = reader.readLine()) != null){
+                    if (line.startsWith("model name")){
+                        model = line.substring(line.indexOf(':') + 1).trim();
+                        break;
+                    }
+                }
+            }
+            catch (IOException e){
+                // Fall back to the architecture and processor count.
+            }
+        }
+        String fingerprint = System.getProperty("os.arch") + " "
+                + Runtime.getRuntime().availableProcessors() + " " + model;
+        return fingerprint.trim().replace('\t', ' ');
+    }
+
+    /*
+    Reads the lines of file, keyed by everything but the engine name.
+    Malformed lines are skipped.*/
+    private static Map<String, String> readWisdom(Path file)
+            throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        if (!Files.exists(file)){
+            return entries;
+        }
+        for (String line: Files.readAllLines(file, StandardCharsets.UTF_8)){
+            if (line.startsWith("#")){
+                continue;
+            }
+            int last = line.lastIndexOf('\t');
+            if (last < 0 || line.split("\t", -1).length != 5){
+                continue;
+            }
+            entries.put(line.substring(0, last), line.substring(last + 1));
+        }
+        return entries;
+    }
+
+    /*
+    Adds the choices in file that were measured on this machine, for
+    engines that are available, to the ones already made. Sizes that
+    were already measured by this process keep their engine.*/
+    public static void loadWisdom(Path file) throws IOException {
+        String prefix = FINGERPRINT + "\t" + PRECISION + "\t";
+        for (Map.Entry<String, String> entry: readWisdom(file).entrySet()){
+            if (!entry.getKey().startsWith(prefix)){
+                continue;
+            }
+            String [] fields = entry.getKey().substring(prefix.length())
+                    .split("\t");
+            int threads, n;
+            try{
+                threads = Integer.parseInt(fields[0]);
+                n = Integer.parseInt(fields[1]);
+            }
+            catch (NumberFormatException e){
+                continue;
+            }
+            for (FftEngine engine: ENGINES){
+                if (engine.name().equals(entry.getValue())
+                        && n > 0 && engine.supports(n)){
+                    CHOICES.putIfAbsent(key(n, threads), engine);
+                    break;
+                }
+            }
+        }
+    }
+
+    /*
+    Merges the choices made so far into file, keeping the lines that
+    are already there for other sizes and machines. The new content is
+    written to a temporary file in the same directory, which then
+    replaces file in a single atomic move where the file system
+    supports it. The read, merge and move hold a lock on the file
+    next to it named file.lock, so two processes saving at once do
+    not drop each other's choices.*/
+    public static void saveWisdom(Path file) throws IOException {
+        synchronized (WISDOM_LOCK){
+            Path dir = file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path lockFile = dir.resolve(file.getFileName() + ".lock");
+            // Closing the channel releases the lock.
+            try (FileChannel channel = FileChannel.open(lockFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)){
+                channel.lock();
+                mergeWisdom(file, dir);
+            }
+        }
+    }
+
+    private static void mergeWisdom(Path file, Path dir) throws IOException {
+        Map<String, String> entries = readWisdom(file);
+        for (Map.Entry<Long, FftEngine> choice: CHOICES.entrySet()){
+            long key = choice.getKey();
+            entries.put(FINGERPRINT + "\t" + PRECISION + "\t"
+                    + (int)key + "\t" + (int)(key >>> 32),
+                    choice.getValue().name());
+        }
+        Path temp = Files.createTempFile(dir,
+                file.getFileName() + ".", ".tmp");
+        try{
+            try (BufferedWriter writer = Files.newBufferedWriter(temp,
+                    StandardCharsets.UTF_8)){
+                writer.write(
+                        "# fingerprint\tprecision\tthreads\tsize\tengine");
+                writer.newLine();
+                for (Map.Entry<String, String> entry: entries.entrySet()){
+                    writer.write(entry.getKey() + "\t" + entry.getValue());
+                    writer.newLine();
+                }
+            }
+            try{
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException e){
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        finally{
+            Files.deleteIfExists(temp);
+        }
+    }
+}
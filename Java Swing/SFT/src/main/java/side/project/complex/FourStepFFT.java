@@ -0,0 +1,227 @@
+package side.project.complex;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+Cache blocked FFT for large power of two lengths, using the six
+step form of Bailey's four step algorithm.
+
+The signal is seen as an n1 by n2 matrix x[j1*n2 + j2], with n1 and
+n2 powers of two close to sqrt(n). Then
+
+    X[k1 + n1*k2] = sum over j2 of W2^(j2*k2) * W^(j2*k1)
+                    * (sum over j1 of x[j1*n2 + j2]*W1^(j1*k1))
+
+where W, W1 and W2 are the n-th, n1-th and n2-th roots of unity.
+The steps are:
+
+    1. transpose to n2 rows of length n1
+    2. transform each row (length n1)
+    3. multiply element (j2, k1) by W^(j2*k1)
+    4. transpose to n1 rows of length n2
+    5. transform each row (length n2)
+    6. transpose to the natural order k1 + n1*k2
+
+Every row transform works on about sqrt(n) contiguous values, which
+fit in cache even when the whole signal is far larger than L2 or
+L3, and the transposes move the data in small square tiles. Steps 2
+and 3 are done together on each row while it is in cache.
+
+W^t is found from two small tables, W^t = W^(n1*(t/n1)) * W^(t%n1),
+instead of a table of n entries.
+
+The result is unnormalized, like inPlaceFastFourierTransform.
+Instances are immutable apart from scratch, so they can be shared
+between threads, and forSize keeps the most recently used ones in a
+small cache. Each instance keeps one spare set of the n values of
+scratch. A transform takes it for its whole run and hands it back at
+the end, so repeated transforms of one size allocate nothing, while
+a transform that finds it taken, for example one run by a thread
+helping while it waits on a join, allocates its own. The row buffers
+are kept per thread, since a row task never waits while using them.
+
+Reference:
+
+Bailey D. (1990). FFTs in External or Hierarchical Memory.
+The Journal of Supercomputing, 4, 23-35.*/
+final class FourStepFFT {
+
+    private static final int TILE = 32;
+    // Values handled by each task when running on a pool.
+    private static final int TASK_SIZE = 1 << 14;
+
+    private static final PlanCache<FourStepFFT> CACHE = new PlanCache<>(4);
+
+    private final int n;
+    private final int n1;
+    private final int n2;
+    private final StockhamFFT rowFFT1;
+    private final StockhamFFT rowFFT2;
+    // exp(sign*2*pi*i*t/n) for t < n1, and for t = n1*u with u < n2.
+    private final double [] fineRe;
+    private final double [] fineIm;
+    private final double [] coarseRe;
+    private final double [] coarseIm;
+    // The n values of scratch, when no transform is using them.
+    private final AtomicReference<double [][]> spare =
+            new AtomicReference<>();
+    // Six buffers of max(n1, n2) values, for each thread that
+    // transforms rows.
+    private final ThreadLocal<double [][]> rowBuffers;
+
+    FourStepFFT(int n, int sign) {
+        if (n < 4 || (n & (n - 1)) != 0){
+            throw new IllegalArgumentException(
+                    "Size must be a power of two of at least 4: " + n);
+        }
+        int log2 = Integer.numberOfTrailingZeros(n);
+        this.n = n;
+        this.n1 = 1 << (log2/2);
+        this.n2 = n/this.n1;
+        this.rowFFT1 = new StockhamFFT(this.n1, sign);
+        this.rowFFT2 = (this.n2 == this.n1)?
+                this.rowFFT1: new StockhamFFT(this.n2, sign);
+        double angle = sign*Complex.TAU/n;
+        this.fineRe = new double[this.n1];
+        this.fineIm = new double[this.n1];
+        for (int t = 0; t < this.n1; t++){
+            this.fineRe[t] = Math.cos(angle*t);
+            this.fineIm[t] = Math.sin(angle*t);
+        }
+        this.coarseRe = new double[this.n2];
+        this.coarseIm = new double[this.n2];
+        for (int u = 0; u < this.n2; u++){
+            this.coarseRe[u] = Math.cos(angle*((long)u*this.n1));
+            this.coarseIm[u] = Math.sin(angle*((long)u*this.n1));
+        }
+        int rowLength = Math.max(this.n1, this.n2);
+        this.rowBuffers = ThreadLocal.withInitial(
+                () -> new double[6][rowLength]);
+    }
+
+    /*
+    The transform for length n and the given sign of the exponent,
+    from the cache when possible.*/
+    static FourStepFFT forSize(int n, int sign) {
+        long key = sign*(long)n;
+        FourStepFFT plan = CACHE.get(key);
+        if (plan == null){
+            plan = CACHE.put(key, new FourStepFFT(n, sign));
+        }
+        return plan;
+    }
+
+    int size() {
+        return this.n;
+    }
+
+    /*
+    Transforms the n values of (re, im) in place, with n values of
+    scratch memory.*/
+    void transform(double [] re, double [] im) {
+        this.transform(re, im, null);
+    }
+
+    /*
+    Same as above, with the row transforms and the transposes spread
+    over the given pool, or run on the calling thread if pool is
+    null. Each row is transformed by the same code whichever thread
+    runs it, so the result is identical in both cases.*/
+    void transform(final double [] re, final double [] im,
+                   final ForkJoinPool pool) {
+        final int n1 = this.n1, n2 = this.n2;
+        double [][] work = this.spare.getAndSet(null);
+        if (work == null){
+            work = new double[2][this.n];
+        }
+        final double [] workRe = work[0];
+        final double [] workIm = work[1];
+
+        transpose(re, im, workRe, workIm, n1, n2, pool);
+        forEachRow(pool, n2, n1, (from, to) -> {
+            double [][] buffers = this.rowBuffers.get();
+            for (int j2 = from; j2 < to; j2++){
+                int start = j2*n1;
+                System.arraycopy(workRe, start, buffers[0], 0, n1);
+                System.arraycopy(workIm, start, buffers[1], 0, n1);
+                this.rowFFT1.transform(buffers[0], buffers[1],
+                        buffers[2], buffers[3], buffers[4], buffers[5]);
+                this.twiddle(buffers[2], buffers[3], workRe, workIm,
+                        start, j2);
+            }
+        });
+        transpose(workRe, workIm, re, im, n2, n1, pool);
+        forEachRow(pool, n1, n2, (from, to) -> {
+            double [][] buffers = this.rowBuffers.get();
+            for (int k1 = from; k1 < to; k1++){
+                int start = k1*n2;
+                System.arraycopy(re, start, buffers[0], 0, n2);
+                System.arraycopy(im, start, buffers[1], 0, n2);
+                this.rowFFT2.transform(buffers[0], buffers[1],
+                        buffers[2], buffers[3], buffers[4], buffers[5]);
+                System.arraycopy(buffers[2], 0, workRe, start, n2);
+                System.arraycopy(buffers[3], 0, workIm, start, n2);
+            }
+        });
+        transpose(workRe, workIm, re, im, n1, n2, pool);
+        this.spare.set(work);
+    }
+
+    private static void forEachRow(ForkJoinPool pool, int rows,
+                                   int rowLength, ParallelRange.Body body) {
+        if (pool == null){
+            body.run(0, rows);
+        }
+        else{
+            ParallelRange.forEach(pool, rows,
+                    Math.max(1, TASK_SIZE/rowLength), body);
+        }
+    }
+
+    /*
+    dest[start + k1] = row[k1]*W^(j2*k1) for k1 < n1.*/
+    private void twiddle(double [] rowRe, double [] rowIm,
+                         double [] destRe, double [] destIm,
+                         int start, int j2) {
+        int mask = this.n1 - 1;
+        int shift = Integer.numberOfTrailingZeros(this.n1);
+        double wRe, wIm, cRe, cIm, fRe, fIm;
+        for (int k1 = 0; k1 < this.n1; k1++){
+            int t = j2*k1;
+            cRe = this.coarseRe[t >>> shift];
+            cIm = this.coarseIm[t >>> shift];
+            fRe = this.fineRe[t & mask];
+            fIm = this.fineIm[t & mask];
+            wRe = cRe*fRe - cIm*fIm;
+            wIm = cRe*fIm + cIm*fRe;
+            destRe[start + k1] = rowRe[k1]*wRe - rowIm[k1]*wIm;
+            destIm[start + k1] = rowRe[k1]*wIm + rowIm[k1]*wRe;
+        }
+    }
+
+    /*
+    Writes the transpose of the rows by cols matrix src into dest,
+    one TILE by TILE block at a time. Bands of TILE rows are spread
+    over the pool when there is one.*/
+    static void transpose(final double [] srcRe, final double [] srcIm,
+                          final double [] destRe, final double [] destIm,
+                          final int rows, final int cols,
+                          ForkJoinPool pool) {
+        int bands = (rows + TILE - 1)/TILE;
+        forEachRow(pool, bands, TILE*cols, (from, to) -> {
+            for (int r0 = from*TILE; r0 < Math.min(to*TILE, rows); r0 += TILE){
+                int r1 = Math.min(r0 + TILE, rows);
+                for (int c0 = 0; c0 < cols; c0 += TILE){
+                    int c1 = Math.min(c0 + TILE, cols);
+                    for (int r = r0; r < r1; r++){
+                        for (int c = c0; c < c1; c++){
+                            destRe[c*rows + r] = srcRe[r*cols + c];
+                            destIm[c*rows + r] = srcIm[r*cols + c];
+                        }
+                    }
+                }
+            }
+        });
+    }
+}
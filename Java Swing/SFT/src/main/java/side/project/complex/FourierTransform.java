@@ -1,72 +1,228 @@
 package side.project.complex;
 
+import java.nio.DoubleBuffer;
+import java.util.concurrent.ForkJoinPool;
+
 public class FourierTransform{
 
-    private static final double INVSQRT2 = 0.70710678118654752;
+    // Above this prime factor the mixed radix FFT, which does O(n p)
+    // work for a factor p, is slower than Bluestein's algorithm.
+    static final int BLUESTEIN_THRESHOLD = 200;
+    // From this size on the radix-2 stages no longer fit in cache and
+    // the in place transform of a ComplexVector uses the four step
+    // algorithm.
+    private static final int FOUR_STEP_THRESHOLD = 1 << 18;
+
+    private static volatile int parallelCutoff = 1 << 16;
 
     public static ComplexArray fourierTransform(ComplexArray array) {
-        ComplexArray FT = new ComplexArray();
-        double angle = Complex.TAU/array.size();
-        Complex z = new Complex();
-        for (int i = 0; i < array.size(); i++){
-            FT.add(new Complex());
-            for (int j = 0; j < array.size(); j++){
-                z.setImag(angle*i*j);
-                FT.get(i).addBy(array.get(j).multiply(
-                        Functions.exp(z)).divide(array.size()));
-            }
+        return fourierTransform(
+                ComplexVector.fromComplexArray(array)).toComplexArray();
+    }
+
+    /*
+    The transform straight from its definition, divided by n,
+
+        X[k] = (1/n) * sum over j of x[j]*exp(2*pi*i*j*k/n)
+
+    in O(n^2) time, for any length. The factors come from a table of
+    the n roots of unity instead of cos and sin calls, and the bins
+    are computed in parallel on the common pool, with the same result
+    as on a single thread.*/
+    public static ComplexVector fourierTransform(ComplexVector vector) {
+        return fourierTransform(vector, ForkJoinPool.commonPool());
+    }
+
+    /*
+    Same as above on the given pool, or on the calling thread if pool
+    is null.*/
+    public static ComplexVector fourierTransform(ComplexVector vector,
+                                                 ForkJoinPool pool) {
+        int n = vector.size;
+        ComplexVector FT = new ComplexVector(n);
+        if (n > 0){
+            DirectDFT.forSize(n).transform(vector.re, vector.im,
+                    FT.re, FT.im, 1.0/n, pool);
         }
         return FT;
     }
 
-    private static boolean isPowerOfTwo(int size) {
-        switch (size){
-            case 2: case 4: case 16: case 32: case 64:
-            case 128: case 256: case 512: case 1024:
-            case 2048: case 4096: case 8192: case 16384:
-            case 32768: case 65536: case 131072:
-            case 262144: case 524288:
-                return true;
-            default:
-                return false;
-        }
-    }
-
-    private static void bitReverseSize2(ComplexArray array) {
-        int n = array.size();
-        int u, d, rev;
-        for (int i = 0; i < n; i++){
-            u = 1;
-            d = n >> 1;
-            rev = 0;
-            while (u < n){
-                rev += d*((i&u)/u);
-                u <<= 1;
-                d >>= 1;
-            }
-            if (rev >= i){
-                Complex.swapComplex(
-                        array.get(i),
-                        array.get(rev));
+    /*
+    Same result as fourierTransform, including the division by n,
+    but computed with the FftPlan for the length: the Stockham FFT
+    for powers of two, and the mixed radix or Bluestein FFT
+    otherwise, so the length does not need to be a power of two.*/
+    public static ComplexVector fastFourierTransform(ComplexVector vector) {
+        return fastFourierTransform(vector, Normalization.FORWARD);
+    }
+
+    /*
+    Transform of any length, scaled as the given convention asks:
+    divided by n for FORWARD, by sqrt(n) for ORTHO and not at all for
+    BACKWARD, which gives the same bins as inPlaceFastFourierTransform.*/
+    public static ComplexVector fastFourierTransform(ComplexVector vector,
+                                                     Normalization norm) {
+        int n = vector.size;
+        ComplexVector FT = new ComplexVector(n);
+        if (n > 0){
+            FftPlan.forSize(n).transform(vector, FT);
+            scale(FT, norm.forwardScale(n));
+        }
+        return FT;
+    }
+
+    /*
+    Inverse of fastFourierTransform: rebuilds the signal from the
+    amplitudes returned by fourierTransform or fastFourierTransform,
+    for any length.*/
+    public static ComplexVector inverseFastFourierTransform(
+            ComplexVector spectrum) {
+        return inverseFastFourierTransform(spectrum, Normalization.FORWARD);
+    }
+
+    /*
+    Inverse transform of any length,
+
+        x[j] = s * sum over k of X[k]*exp(-2*pi*i*j*k/n)
+
+    where s is 1 for FORWARD, 1/sqrt(n) for ORTHO and 1/n for
+    BACKWARD. Inverting the forward transform computed with the same
+    convention gives back the original signal.*/
+    public static ComplexVector inverseFastFourierTransform(
+            ComplexVector spectrum, Normalization norm) {
+        int n = spectrum.size;
+        ComplexVector signal = new ComplexVector(n);
+        if (n > 0){
+            FftPlan.forSize(n, FftPlan.Direction.INVERSE)
+                    .transform(spectrum, signal);
+            scale(signal, norm.inverseScale(n));
+        }
+        return signal;
+    }
+
+    /*
+    Forces the chirp-z path that fastFourierTransform takes for
+    lengths with a large prime factor.*/
+    public static ComplexVector bluesteinFourierTransform(
+            ComplexVector vector) {
+        int n = vector.size;
+        ComplexVector FT = new ComplexVector(n);
+        if (n > 0){
+            BluesteinFFT.forSize(n, 1).transform(vector.re, vector.im,
+                    FT.re, FT.im);
+            scale(FT, 1.0/n);
+        }
+        return FT;
+    }
+
+    static void scale(ComplexVector vector, double factor) {
+        if (factor == 1.0){
+            return;
+        }
+        for (int i = 0; i < vector.size; i++){
+            vector.re[i] *= factor;
+            vector.im[i] *= factor;
+        }
+    }
+
+    /*
+    Transform of a real signal, divided by n like fourierTransform.
+    Only the bins k = 0, ..., n/2 are returned, since the others
+    follow from X[n - k] = conj(X[k]). For even n this costs one
+    complex transform of length n/2.*/
+    public static ComplexVector realFastFourierTransform(double [] signal) {
+        return realFastFourierTransform(signal, Normalization.FORWARD);
+    }
+
+    public static ComplexVector realFastFourierTransform(double [] signal,
+                                                         Normalization norm) {
+        int n = signal.length;
+        ComplexVector FT = new ComplexVector((n == 0)? 0: n/2 + 1);
+        if (n > 0){
+            RealFFT.forSize(n).forward(signal, FT.re, FT.im);
+            scale(FT, norm.forwardScale(n));
+        }
+        return FT;
+    }
+
+    /*
+    Rebuilds the n real samples from the n/2 + 1 bins returned by
+    realFastFourierTransform.*/
+    public static double [] inverseRealFastFourierTransform(
+            ComplexVector halfSpectrum, int n) {
+        return inverseRealFastFourierTransform(halfSpectrum, n,
+                Normalization.FORWARD);
+    }
+
+    public static double [] inverseRealFastFourierTransform(
+            ComplexVector halfSpectrum, int n, Normalization norm) {
+        if (n < 1 || halfSpectrum.size != n/2 + 1){
+            throw new IllegalArgumentException("A signal of length " + n
+                    + " needs " + (n/2 + 1) + " bins, not "
+                    + halfSpectrum.size);
+        }
+        double [] signal = new double[n];
+        RealFFT.forSize(n).inverse(halfSpectrum.re, halfSpectrum.im, signal);
+        double factor = norm.inverseScale(n);
+        if (factor != 1.0){
+            for (int j = 0; j < n; j++){
+                signal[j] *= factor;
             }
         }
+        return signal;
     }
 
-    private static void setCosArr(double [] cosArr, int n) {
-        double c, s;
-        double angle = Complex.TAU/n;
-        cosArr[0] = 1.0;
-        cosArr[n/8] = INVSQRT2;
-        cosArr[n/4] = 0.0;
-        cosArr[3*n/8] = -INVSQRT2;
-        for (int i = 1; i < n/8; i++){
-            c = Math.cos(i*angle);
-            s = Math.sin(i*angle);
-            cosArr[i] = c;
-            cosArr[n/4 - i] = s;
-            cosArr[n/4 + i] = -s;
-            cosArr[n/2 - i] = -c;
+    /*
+    Transforms two real signals of the same length with a single
+    complex transform of a + ib, then separates the two spectra with
+
+        A[k] = (Z[k] + conj(Z[n - k]))/2
+        B[k] = (Z[k] - conj(Z[n - k]))/(2i)
+
+    Returns the bins 0, ..., n/2 of each, divided by n like
+    realFastFourierTransform.*/
+    public static ComplexVector [] realFastFourierTransform(double [] a,
+                                                          double [] b) {
+        if (a.length != b.length){
+            throw new UnequalArrayLengthsException();
+        }
+        int n = a.length;
+        int bins = (n == 0)? 0: n/2 + 1;
+        ComplexVector A = new ComplexVector(bins);
+        ComplexVector B = new ComplexVector(bins);
+        if (n == 0){
+            return new ComplexVector [] {A, B};
         }
+        double [] zRe = a.clone();
+        double [] zIm = b.clone();
+        FftPlan.forSize(n).transform(zRe, zIm, 0);
+        double pRe, pIm, qRe, qIm;
+        for (int k = 0; k < bins; k++){
+            pRe = zRe[k];
+            pIm = zIm[k];
+            qRe = zRe[(n - k) % n];
+            qIm = -zIm[(n - k) % n];
+            A.re[k] = 0.5*(pRe + qRe)/n;
+            A.im[k] = 0.5*(pIm + qIm)/n;
+            B.re[k] = 0.5*(pIm - qIm)/n;
+            B.im[k] = -0.5*(pRe - qRe)/n;
+        }
+        return new ComplexVector [] {A, B};
+    }
+
+    public static ComplexArray fastFourierTransform(ComplexArray array) {
+        return fastFourierTransform(
+                ComplexVector.fromComplexArray(array)).toComplexArray();
+    }
+
+    public static ComplexArray inverseFastFourierTransform(
+            ComplexArray spectrum) {
+        return inverseFastFourierTransform(
+                ComplexVector.fromComplexArray(spectrum)).toComplexArray();
+    }
+
+    private static boolean isPowerOfTwo(int size) {
+        return size > 0 && (size & (size - 1)) == 0;
     }
 
     /*
@@ -87,40 +243,44 @@ public class FourierTransform{
         if (isPowerOfTwo(array.size())){
 
             int n = array.size();
+            FftPlan plan = FftPlan.forSize(n);
 
-            FourierTransform.bitReverseSize2(array);
-
-            double [] cosArr = new double [n/2];
-            FourierTransform.setCosArr(cosArr, n);
+            int [] swaps = plan.swaps;
+            for (int k = 0; k < swaps.length; k += 2){
+                Complex.swapComplex(
+                        array.get(swaps[k]),
+                        array.get(swaps[k + 1]));
+            }
 
-            int numberOfBlocks = n/2;
+            // The butterflies update the existing Complex elements
+            // through setReal and setImag, so the transform allocates
+            // nothing once the plan for n exists.
             Complex even, odd;
-            Complex exp = new Complex();
-            double cosVal, sinVal;
-            for (int blockSize = 2; blockSize <= n; blockSize *= 2) {
-                for (int j = 0; j < n; j += blockSize) {
-                    for (int i = 0; i < blockSize/2; i++) {
+            double cosVal, sinVal, expRe, expIm, evenRe, evenIm;
+            for (int s = 0; s < plan.stageRe.length; s++) {
+                int half = 1 << s;
+                double [] stageRe = plan.stageRe[s];
+                double [] stageIm = plan.stageIm[s];
+                for (int j = 0; j < n; j += 2*half) {
+                    for (int i = 0; i < half; i++) {
 
                         even = array.get(j + i);
-                        //even.divideBy(n);
-                        odd = array.get(blockSize/2 + j + i);
-                        //odd.divideBy(n);
-
-                        cosVal = cosArr[i*numberOfBlocks];
-                        sinVal = (i*numberOfBlocks < n/4)?
-                                (-cosArr[i*numberOfBlocks + n/4]):
-                                ( cosArr[i*numberOfBlocks - n/4]);
-
-                        exp.setReal(
-                                cosVal*odd.getReal() - odd.getImag()*sinVal);
-                        exp.setImag(
-                                cosVal*odd.getImag() + odd.getReal()*sinVal);
-
-                        array.set(i + j, even.add(exp));
-                        array.set(blockSize/2 + i + j, even.subtract(exp));
+                        odd = array.get(half + j + i);
+
+                        cosVal = stageRe[i];
+                        sinVal = stageIm[i];
+
+                        expRe = cosVal*odd.getReal() - odd.getImag()*sinVal;
+                        expIm = cosVal*odd.getImag() + odd.getReal()*sinVal;
+                        evenRe = even.getReal();
+                        evenIm = even.getImag();
+
+                        odd.setReal(evenRe - expRe);
+                        odd.setImag(evenIm - expIm);
+                        even.setReal(evenRe + expRe);
+                        even.setImag(evenIm + expIm);
                     }
                 }
-                numberOfBlocks = numberOfBlocks/2;
             }
         }
         else{
@@ -128,6 +288,421 @@ public class FourierTransform{
         }
     }
 
+    /*
+    Same algorithm as above, but working directly on the
+    primitive storage of a ComplexVector, so no objects are
+    created inside the butterfly loops. Large vectors are handed
+    to inPlaceFourStepFastFourierTransform. Like every in place
+    transform here the result is not divided by n, the BACKWARD
+    convention of Normalization.*/
+    public static void inPlaceFastFourierTransform(ComplexVector vector) {
+        if (isPowerOfTwo(vector.size) && vector.size >= FOUR_STEP_THRESHOLD){
+            FourStepFFT.forSize(vector.size, 1).transform(vector.re,
+                    vector.im);
+        }
+        else if (isPowerOfTwo(vector.size)){
+            FftPlan.forSize(vector.size).transform(vector);
+        }
+        else{
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /*
+    Undoes inPlaceFastFourierTransform: the inverse transform,
+    divided by n as the BACKWARD convention asks, so that
+    transforming and then inverting a vector leaves it unchanged.*/
+    public static void inPlaceInverseFastFourierTransform(
+            ComplexVector vector) {
+        int n = vector.size;
+        if (isPowerOfTwo(n) && n >= FOUR_STEP_THRESHOLD){
+            FourStepFFT.forSize(n, -1).transform(vector.re, vector.im);
+        }
+        else if (isPowerOfTwo(n)){
+            FftPlan.forSize(n, FftPlan.Direction.INVERSE).transform(vector);
+        }
+        else{
+            throw new UnsupportedOperationException();
+        }
+        scale(vector, Normalization.BACKWARD.inverseScale(n));
+    }
+
+    /*
+    Power of two transform with the same result as
+    inPlaceFastFourierTransform, computed with radix-4 butterflies.
+    Each radix-4 stage does the work of two radix-2 stages with
+    fewer multiplications and one pass over the data.*/
+    public static void inPlaceRadix4FastFourierTransform(
+            ComplexVector vector) {
+        if (isPowerOfTwo(vector.size)){
+            Radix4FFT.forSize(vector.size, 1).transform(vector.re,
+                    vector.im);
+        }
+        else{
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /*
+    In place power of two transform for signals too large for the
+    cache, using the four step algorithm: the signal is treated as a
+    matrix of about sqrt(n) by sqrt(n) values whose rows are
+    transformed one at a time in cache, with blocked transposes in
+    between. The result is unnormalized, like
+    inPlaceFastFourierTransform, and n values of scratch memory are
+    used.*/
+    public static void inPlaceFourStepFastFourierTransform(
+            ComplexVector vector) {
+        int n = vector.size;
+        if (!isPowerOfTwo(n)){
+            throw new UnsupportedOperationException();
+        }
+        if (n < 4){
+            new StockhamFFT(n, 1).transform(vector.re.clone(),
+                    vector.im.clone(), vector.re, vector.im,
+                    new double[n], new double[n]);
+            return;
+        }
+        FourStepFFT.forSize(n, 1).transform(vector.re, vector.im);
+    }
+
+    public static int getParallelCutoff() {
+        return parallelCutoff;
+    }
+
+    /*
+    Sets the length below which parallelFastFourierTransform stays
+    on the calling thread. Use Integer.MAX_VALUE to never use the
+    pool.*/
+    public static void setParallelCutoff(int cutoff) {
+        if (cutoff < 1){
+            throw new IllegalArgumentException(
+                    "The cutoff must be positive: " + cutoff);
+        }
+        parallelCutoff = cutoff;
+    }
+
+    /*
+    inPlaceFourStepFastFourierTransform with the independent row
+    transforms and transposes spread over a fork join pool. The
+    number of threads is the parallelism of the pool. The work is
+    split the same way whatever the pool, so the result is identical
+    to the sequential four step transform.*/
+    public static void parallelFastFourierTransform(ComplexVector vector,
+                                                    ForkJoinPool pool) {
+        int n = vector.size;
+        if (!isPowerOfTwo(n)){
+            throw new UnsupportedOperationException();
+        }
+        if (n < 4){
+            inPlaceFourStepFastFourierTransform(vector);
+            return;
+        }
+        FourStepFFT.forSize(n, 1).transform(vector.re, vector.im,
+                (n < parallelCutoff)? null: pool);
+    }
+
+    public static void parallelFastFourierTransform(ComplexVector vector) {
+        parallelFastFourierTransform(vector, ForkJoinPool.commonPool());
+    }
+
+    /*
+    Transforms in place every signal of length n in a batch holding
+    any number of them one after the other, with the same
+    unnormalized result as inPlaceFastFourierTransform on each. One
+    plan is shared by all the signals, which are spread over the
+    pool, so this is much faster than transforming them one at a
+    time. n does not need to be a power of two.*/
+    public static void inPlaceBatchFastFourierTransform(ComplexVector batch,
+                                                        int n,
+                                                        ForkJoinPool pool) {
+        if (batch.size == 0){
+            return;
+        }
+        FftPlan.forSize(n).transformBatch(batch, pool);
+    }
+
+    public static void inPlaceBatchFastFourierTransform(ComplexVector batch,
+                                                        int n) {
+        inPlaceBatchFastFourierTransform(batch, n, ForkJoinPool.commonPool());
+    }
+
+    /*
+    Out of place alternative to inPlaceFastFourierTransform, with
+    the same unnormalized result. dest receives the transform and
+    src is left untouched, unless dest is src. This uses the Stockham
+    algorithm, which needs a second buffer of n values but skips the
+    bit reversal and reads and writes memory in order, so it is the
+    faster choice when the memory is available.*/
+    public static void outOfPlaceFastFourierTransform(ComplexVector src,
+                                                      ComplexVector dest) {
+        int n = src.size;
+        if (dest.size != n){
+            throw new UnequalArrayLengthsException();
+        }
+        if (!isPowerOfTwo(n)){
+            throw new UnsupportedOperationException();
+        }
+        FftPlan.forSize(n).transform(src, dest);
+    }
+
+    public static ComplexVector outOfPlaceFastFourierTransform(
+            ComplexVector src) {
+        ComplexVector dest = new ComplexVector(src.size);
+        outOfPlaceFastFourierTransform(src, dest);
+        return dest;
+    }
+
+    /*
+    Transforms only the elements selected by the view, leaving the
+    rest of the parent vector untouched. This lets a caller run an
+    FFT on one block, or on every other sample, without copying.*/
+    public static void inPlaceFastFourierTransform(ComplexVectorView view) {
+        if (isPowerOfTwo(view.size())){
+            ComplexVector parent = view.getParent();
+            fastFourierTransform(parent.re, parent.im,
+                    view.getOffset(), view.size(), view.getStride());
+        }
+        else{
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    static void fastFourierTransform(double [] re, double [] im,
+                                     int offset, int n, int stride) {
+        FftPlan plan = FftPlan.forSize(n);
+        if (stride == 1){
+            plan.transform(re, im, offset);
+            return;
+        }
+
+        int [] swaps = plan.swaps;
+        int even, odd;
+        double tmp;
+        for (int k = 0; k < swaps.length; k += 2){
+            even = offset + swaps[k]*stride;
+            odd = offset + swaps[k + 1]*stride;
+            tmp = re[even];
+            re[even] = re[odd];
+            re[odd] = tmp;
+            tmp = im[even];
+            im[even] = im[odd];
+            im[odd] = tmp;
+        }
+
+        double cosVal, sinVal, expRe, expIm;
+        for (int s = 0; s < plan.stageRe.length; s++) {
+            int half = 1 << s;
+            for (int j = 0; j < n; j += 2*half) {
+                for (int i = 0; i < half; i++) {
+
+                    even = offset + (j + i)*stride;
+                    odd = offset + (half + j + i)*stride;
+
+                    cosVal = plan.stageRe[s][i];
+                    sinVal = plan.stageIm[s][i];
+
+                    expRe = cosVal*re[odd] - im[odd]*sinVal;
+                    expIm = cosVal*im[odd] + re[odd]*sinVal;
+
+                    re[odd] = re[even] - expRe;
+                    im[odd] = im[even] - expIm;
+                    re[even] += expRe;
+                    im[even] += expIm;
+                }
+            }
+        }
+    }
+
+    /*
+    Same algorithm again, for signals stored off heap. The
+    permutation and twiddle factors come from the FftPlan, so
+    nothing is allocated after the first transform of a size.*/
+    public static void inPlaceFastFourierTransform(DirectComplexBuffer buffer) {
+        buffer.checkOpen();
+        if (isPowerOfTwo(buffer.size())){
+
+            int n = buffer.size();
+            DoubleBuffer re = buffer.re;
+            DoubleBuffer im = buffer.im;
+            FftPlan plan = FftPlan.forSize(n);
+
+            int [] swaps = plan.swaps;
+            int even, odd;
+            double tmp;
+            for (int k = 0; k < swaps.length; k += 2){
+                even = swaps[k];
+                odd = swaps[k + 1];
+                tmp = re.get(even);
+                re.put(even, re.get(odd));
+                re.put(odd, tmp);
+                tmp = im.get(even);
+                im.put(even, im.get(odd));
+                im.put(odd, tmp);
+            }
+
+            double cosVal, sinVal, expRe, expIm;
+            double evenRe, evenIm, oddRe, oddIm;
+            for (int s = 0; s < plan.stageRe.length; s++) {
+                int half = 1 << s;
+                for (int j = 0; j < n; j += 2*half) {
+                    for (int i = 0; i < half; i++) {
+
+                        even = j + i;
+                        odd = half + j + i;
+                        evenRe = re.get(even);
+                        evenIm = im.get(even);
+                        oddRe = re.get(odd);
+                        oddIm = im.get(odd);
+
+                        cosVal = plan.stageRe[s][i];
+                        sinVal = plan.stageIm[s][i];
+
+                        expRe = cosVal*oddRe - oddIm*sinVal;
+                        expIm = cosVal*oddIm + oddRe*sinVal;
+
+                        re.put(even, evenRe + expRe);
+                        im.put(even, evenIm + expIm);
+                        re.put(odd, evenRe - expRe);
+                        im.put(odd, evenIm - expIm);
+                    }
+                }
+            }
+        }
+        else{
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /*
+    Single precision version. Only the storage is float: the twiddle
+    factors and each butterfly are computed in double precision and
+    rounded once when stored.*/
+    public static void inPlaceFastFourierTransform(ComplexFloatVector vector) {
+        if (isPowerOfTwo(vector.size)){
+
+            int n = vector.size;
+            float [] re = vector.re;
+            float [] im = vector.im;
+            FftPlan plan = FftPlan.forSize(n);
+
+            int [] swaps = plan.swaps;
+            int even, odd;
+            float tmp;
+            for (int k = 0; k < swaps.length; k += 2){
+                even = swaps[k];
+                odd = swaps[k + 1];
+                tmp = re[even];
+                re[even] = re[odd];
+                re[odd] = tmp;
+                tmp = im[even];
+                im[even] = im[odd];
+                im[odd] = tmp;
+            }
+
+            double cosVal, sinVal, expRe, expIm, evenRe, evenIm;
+            for (int s = 0; s < plan.stageRe.length; s++) {
+                int half = 1 << s;
+                for (int j = 0; j < n; j += 2*half) {
+                    for (int i = 0; i < half; i++) {
+
+                        even = j + i;
+                        odd = half + j + i;
+
+                        cosVal = plan.stageRe[s][i];
+                        sinVal = plan.stageIm[s][i];
+
+                        expRe = cosVal*re[odd] - im[odd]*sinVal;
+                        expIm = cosVal*im[odd] + re[odd]*sinVal;
+                        evenRe = re[even];
+                        evenIm = im[even];
+
+                        re[odd] = (float)(evenRe - expRe);
+                        im[odd] = (float)(evenIm - expIm);
+                        re[even] = (float)(evenRe + expRe);
+                        im[even] = (float)(evenIm + expIm);
+                    }
+                }
+            }
+        }
+        else{
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /*
+    Only the bins k in frequencies, divided by n like
+    fourierTransform, in the order given. Frequencies are taken mod n,
+    so -1 is bin n - 1. When there are fewer than about log2(n) bins,
+    each is computed directly in O(n) time, in parallel on the common
+    pool. Otherwise a full fastFourierTransform is cheaper and the
+    bins are picked from it.*/
+    public static ComplexVector selectedFourierTransform(
+            ComplexVector vector, int [] frequencies) {
+        return selectedFourierTransform(vector, frequencies,
+                ForkJoinPool.commonPool());
+    }
+
+    public static ComplexVector selectedFourierTransform(
+            ComplexVector vector, int [] frequencies, ForkJoinPool pool) {
+        int n = vector.size;
+        ComplexVector FT = new ComplexVector(frequencies.length);
+        if (frequencies.length == 0){
+            return FT;
+        }
+        if (n == 0){
+            throw new IllegalArgumentException(
+                    "An empty signal has no frequencies");
+        }
+        if (frequencies.length <= directBinLimit(n)){
+            SelectedDFT.transform(vector.re, vector.im, n, frequencies,
+                    FT.re, FT.im, 1.0/n, pool);
+            return FT;
+        }
+        ComplexVector full = fastFourierTransform(vector);
+        int k;
+        for (int b = 0; b < frequencies.length; b++){
+            k = Math.floorMod(frequencies[b], n);
+            FT.re[b] = full.re[k];
+            FT.im[b] = full.im[k];
+        }
+        return FT;
+    }
+
+    /*
+    Largest number of bins for which computing them one by one is
+    faster than a full FFT. Lengths that need Bluestein's algorithm
+    make the FFT several times slower.*/
+    private static int directBinLimit(int n) {
+        int log2 = 32 - Integer.numberOfLeadingZeros(n - 1);
+        return (MixedRadixFFT.largestPrimeFactor(n) > BLUESTEIN_THRESHOLD)?
+                8*log2: log2;
+    }
+
+    /*
+    The 2K + 1 bins with |k| <= K, where K is maxFrequency, in the
+    order 0, 1, ..., K, -K, ..., -1 of fourierFrequencies(2K + 1), so
+    the two can be drawn as circles together. K is lowered to
+    (n - 1)/2 for short signals, so that no bin appears twice.*/
+    public static ComplexVector lowFrequencyFourierTransform(
+            ComplexVector vector, int maxFrequency) {
+        if (maxFrequency < 0){
+            throw new IllegalArgumentException(
+                    "The maximum frequency must not be negative: "
+                            + maxFrequency);
+        }
+        int K = Math.min(maxFrequency, (vector.size - 1)/2);
+        if (K < 0){
+            return new ComplexVector(0);
+        }
+        double [] freq = fourierFrequencies(2*K + 1);
+        int [] frequencies = new int[freq.length];
+        for (int b = 0; b < freq.length; b++){
+            frequencies[b] = (int)freq[b];
+        }
+        return selectedFourierTransform(vector, frequencies);
+    }
+
     public static double [] fourierFrequencies(int n) {
         double [] freq = new double[n];
 		int half_n = (n % 2 == 1)? n/2 + 1: n/2;
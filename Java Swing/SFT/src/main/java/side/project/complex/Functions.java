@@ -1,5 +1,7 @@
 package side.project.complex;
 
+import java.nio.DoubleBuffer;
+
 public final class Functions{
 
     public static final double TAU = 2*Math.PI;
@@ -67,4 +69,160 @@ public final class Functions{
         }
         return array2;
     }
+
+    public static ComplexVector exp(ComplexVector vector) {
+        int n = vector.size;
+        ComplexVector vector2 = new ComplexVector(n);
+        ComplexKernels.INSTANCE.exp(vector.re, vector.im,
+                vector2.re, vector2.im, 0, n);
+        return vector2;
+    }
+
+    public static ComplexVector sin(ComplexVector vector) {
+        int n = vector.size;
+        ComplexVector vector2 = new ComplexVector(n);
+        double re, im;
+        for (int i = 0; i < n; i++){
+            re = vector.re[i];
+            im = vector.im[i];
+            if (im == 0.0){
+                vector2.re[i] = Math.sin(re);
+            }
+            else{
+                vector2.re[i] = Math.sin(re)*Math.cosh(im);
+                vector2.im[i] = Math.cos(re)*Math.sinh(im);
+            }
+        }
+        return vector2;
+    }
+
+    public static ComplexVector cos(ComplexVector vector) {
+        int n = vector.size;
+        ComplexVector vector2 = new ComplexVector(n);
+        double re, im;
+        for (int i = 0; i < n; i++){
+            re = vector.re[i];
+            im = vector.im[i];
+            if (im == 0.0){
+                vector2.re[i] = Math.cos(re);
+            }
+            else{
+                vector2.re[i] = Math.cos(re)*Math.cosh(im);
+                vector2.im[i] = -Math.sin(re)*Math.sinh(im);
+            }
+        }
+        return vector2;
+    }
+
+    /*
+    The off heap versions write into a destination buffer, which
+    may be the source itself, so that huge signals do not need a
+    second allocation.*/
+    public static void exp(DirectComplexBuffer src,
+                           DirectComplexBuffer dest) {
+        checkSizes(src, dest);
+        DoubleBuffer re = src.re, im = src.im;
+        double expRe, imVal;
+        for (int i = 0; i < src.size(); i++){
+            expRe = Math.exp(re.get(i));
+            imVal = im.get(i);
+            dest.re.put(i, expRe*Math.cos(imVal));
+            dest.im.put(i, expRe*Math.sin(imVal));
+        }
+    }
+
+    public static void sin(DirectComplexBuffer src,
+                           DirectComplexBuffer dest) {
+        checkSizes(src, dest);
+        DoubleBuffer re = src.re, im = src.im;
+        double reVal, imVal;
+        for (int i = 0; i < src.size(); i++){
+            reVal = re.get(i);
+            imVal = im.get(i);
+            if (imVal == 0.0){
+                dest.re.put(i, Math.sin(reVal));
+                dest.im.put(i, 0.0);
+            }
+            else{
+                dest.re.put(i, Math.sin(reVal)*Math.cosh(imVal));
+                dest.im.put(i, Math.cos(reVal)*Math.sinh(imVal));
+            }
+        }
+    }
+
+    public static void cos(DirectComplexBuffer src,
+                           DirectComplexBuffer dest) {
+        checkSizes(src, dest);
+        DoubleBuffer re = src.re, im = src.im;
+        double reVal, imVal;
+        for (int i = 0; i < src.size(); i++){
+            reVal = re.get(i);
+            imVal = im.get(i);
+            if (imVal == 0.0){
+                dest.re.put(i, Math.cos(reVal));
+                dest.im.put(i, 0.0);
+            }
+            else{
+                dest.re.put(i, Math.cos(reVal)*Math.cosh(imVal));
+                dest.im.put(i, -Math.sin(reVal)*Math.sinh(imVal));
+            }
+        }
+    }
+
+    private static void checkSizes(DirectComplexBuffer src,
+                                   DirectComplexBuffer dest) {
+        src.checkOpen();
+        dest.checkOpen();
+        if (src.size() != dest.size()){
+            throw new UnequalArrayLengthsException();
+        }
+    }
+
+    public static ComplexFloatVector exp(ComplexFloatVector vector) {
+        int n = vector.size;
+        ComplexFloatVector vector2 = new ComplexFloatVector(n);
+        double expRe;
+        for (int i = 0; i < n; i++){
+            expRe = Math.exp(vector.re[i]);
+            vector2.re[i] = (float)(expRe*Math.cos(vector.im[i]));
+            vector2.im[i] = (float)(expRe*Math.sin(vector.im[i]));
+        }
+        return vector2;
+    }
+
+    public static ComplexFloatVector sin(ComplexFloatVector vector) {
+        int n = vector.size;
+        ComplexFloatVector vector2 = new ComplexFloatVector(n);
+        double re, im;
+        for (int i = 0; i < n; i++){
+            re = vector.re[i];
+            im = vector.im[i];
+            if (im == 0.0){
+                vector2.re[i] = (float)Math.sin(re);
+            }
+            else{
+                vector2.re[i] = (float)(Math.sin(re)*Math.cosh(im));
+                vector2.im[i] = (float)(Math.cos(re)*Math.sinh(im));
+            }
+        }
+        return vector2;
+    }
+
+    public static ComplexFloatVector cos(ComplexFloatVector vector) {
+        int n = vector.size;
+        ComplexFloatVector vector2 = new ComplexFloatVector(n);
+        double re, im;
+        for (int i = 0; i < n; i++){
+            re = vector.re[i];
+            im = vector.im[i];
+            if (im == 0.0){
+                vector2.re[i] = (float)Math.cos(re);
+            }
+            else{
+                vector2.re[i] = (float)(Math.cos(re)*Math.cosh(im));
+                vector2.im[i] = (float)(-Math.sin(re)*Math.sinh(im));
+            }
+        }
+        return vector2;
+    }
 }
\ No newline at end of file
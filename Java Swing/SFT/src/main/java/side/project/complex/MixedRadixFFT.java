@@ -0,0 +1,358 @@
+package side.project.complex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+Mixed radix Cooley-Tukey FFT for any length n.
+
+n is factored into radices 4, 2, 3 and 5, and any other prime
+factors are handled by a generic odd radix butterfly. The transform
+is computed recursively by decimation in time: the p interleaved
+subsequences x[q], x[q + p], x[q + 2p], ... are transformed first,
+and then combined with one radix p butterfly per output bin. For
+lengths made of small factors this costs O(n log n), while a large
+prime factor p adds O(n p) work.
+
+An instance precomputes the factorization and the table of twiddle
+factors for one length and one sign of the exponent, and is
+immutable, so it can be shared between threads. The transform is
+unnormalized:
+
+    out[k] = sum over j of in[j]*exp(sign*2*pi*i*j*k/n)
+
+with sign = +1 for the forward transform used throughout this
+package.*/
+final class MixedRadixFFT {
+
+    private final int n;
+    private final int sign;
+    private final int [] factors;
+    private final int maxGenericRadix;
+    // wRe[t] + i wIm[t] = exp(sign*2*pi*i*t/n)
+    private final double [] wRe;
+    private final double [] wIm;
+
+    MixedRadixFFT(int n, int sign) {
+        if (n < 0){
+            throw new IllegalArgumentException("Negative size: " + n);
+        }
+        this.n = n;
+        this.sign = sign;
+        this.factors = factorize(n);
+        int maxRadix = 0;
+        for (int p: this.factors){
+            if (p > 5){
+                maxRadix = Math.max(maxRadix, p);
+            }
+        }
+        this.maxGenericRadix = maxRadix;
+        this.wRe = new double[n];
+        this.wIm = new double[n];
+        double angle = sign*Complex.TAU/n;
+        for (int t = 0; t < n; t++){
+            this.wRe[t] = Math.cos(angle*t);
+            this.wIm[t] = Math.sin(angle*t);
+        }
+    }
+
+    int size() {
+        return this.n;
+    }
+
+    static int [] factorize(int n) {
+        List<Integer> factors = new ArrayList<>();
+        while (n % 4 == 0 && n > 0){
+            factors.add(4);
+            n /= 4;
+        }
+        for (int p = 2; p <= n; p = (p == 2)? 3: p + 2){
+            while (n % p == 0){
+                factors.add(p);
+                n /= p;
+            }
+            if ((long)p*p > n && n > 1){
+                factors.add(n);
+                break;
+            }
+        }
+        int [] result = new int[factors.size()];
+        for (int i = 0; i < result.length; i++){
+            result[i] = factors.get(i);
+        }
+        return result;
+    }
+
+    /*
+    Largest prime factor of n, or 1 for n <= 1.*/
+    static int largestPrimeFactor(int n) {
+        int largest = 1;
+        for (int p: factorize(n)){
+            if (p != 4){
+                largest = Math.max(largest, p);
+            }
+            else{
+                largest = Math.max(largest, 2);
+            }
+        }
+        return largest;
+    }
+
+    /*
+    Transforms the n values in (inRe, inIm) into (outRe, outIm). The
+    input is left untouched and must not be the same arrays as the
+    output.*/
+    void transform(double [] inRe, double [] inIm,
+                   double [] outRe, double [] outIm) {
+        this.transform(inRe, inIm, outRe, outIm,
+                new double[this.tempSize()], new double[this.tempSize()]);
+    }
+
+    /*
+    Number of values needed in each of the tRe and tIm arrays given
+    to the transform below.*/
+    int tempSize() {
+        return Math.max(this.maxGenericRadix, 5);
+    }
+
+    /*
+    Same as above, with caller supplied temporary arrays so that
+    nothing is allocated.*/
+    void transform(double [] inRe, double [] inIm,
+                   double [] outRe, double [] outIm,
+                   double [] tRe, double [] tIm) {
+        if (this.n == 0){
+            return;
+        }
+        this.transform(inRe, inIm, 0, 1, outRe, outIm, 0,
+                this.n, 0, tRe, tIm);
+    }
+
+    private void transform(double [] inRe, double [] inIm,
+                           int inOffset, int stride,
+                           double [] outRe, double [] outIm,
+                           int outOffset, int length, int factorIndex,
+                           double [] tRe, double [] tIm) {
+        if (length == 1){
+            outRe[outOffset] = inRe[inOffset];
+            outIm[outOffset] = inIm[inOffset];
+            return;
+        }
+        int p = this.factors[factorIndex];
+        int m = length/p;
+        for (int q = 0; q < p; q++){
+            this.transform(inRe, inIm, inOffset + q*stride, stride*p,
+                    outRe, outIm, outOffset + q*m, m, factorIndex + 1,
+                    tRe, tIm);
+        }
+        int twiddleStep = this.n/length;
+        switch (p){
+            case 2:
+                this.radix2(outRe, outIm, outOffset, m, twiddleStep);
+                break;
+            case 3:
+                this.radix3(outRe, outIm, outOffset, m, twiddleStep);
+                break;
+            case 4:
+                this.radix4(outRe, outIm, outOffset, m, twiddleStep);
+                break;
+            case 5:
+                this.radix5(outRe, outIm, outOffset, m, twiddleStep);
+                break;
+            default:
+                this.radixGeneric(outRe, outIm, outOffset, m, p,
+                        twiddleStep, tRe, tIm);
+        }
+    }
+
+    private void radix2(double [] re, double [] im, int offset,
+                        int m, int twiddleStep) {
+        double t1Re, t1Im, xRe, xIm;
+        int w;
+        for (int k = 0; k < m; k++){
+            int i0 = offset + k, i1 = i0 + m;
+            w = k*twiddleStep;
+            xRe = re[i1];
+            xIm = im[i1];
+            t1Re = xRe*this.wRe[w] - xIm*this.wIm[w];
+            t1Im = xRe*this.wIm[w] + xIm*this.wRe[w];
+            re[i1] = re[i0] - t1Re;
+            im[i1] = im[i0] - t1Im;
+            re[i0] += t1Re;
+            im[i0] += t1Im;
+        }
+    }
+
+    private void radix3(double [] re, double [] im, int offset,
+                        int m, int twiddleStep) {
+        final double c = -0.5;
+        final double s = this.sign*0.86602540378443864676;
+        double t1Re, t1Im, t2Re, t2Im, aRe, aIm, bRe, bIm, xRe, xIm;
+        int w1, w2;
+        for (int k = 0; k < m; k++){
+            int i0 = offset + k, i1 = i0 + m, i2 = i1 + m;
+            w1 = k*twiddleStep;
+            w2 = 2*w1;
+            xRe = re[i1];
+            xIm = im[i1];
+            t1Re = xRe*this.wRe[w1] - xIm*this.wIm[w1];
+            t1Im = xRe*this.wIm[w1] + xIm*this.wRe[w1];
+            xRe = re[i2];
+            xIm = im[i2];
+            t2Re = xRe*this.wRe[w2] - xIm*this.wIm[w2];
+            t2Im = xRe*this.wIm[w2] + xIm*this.wRe[w2];
+            aRe = t1Re + t2Re;
+            aIm = t1Im + t2Im;
+            bRe = t1Re - t2Re;
+            bIm = t1Im - t2Im;
+            xRe = re[i0] + c*aRe;
+            xIm = im[i0] + c*aIm;
+            re[i0] += aRe;
+            im[i0] += aIm;
+            // i*s*b = -s*bIm + i s*bRe
+            re[i1] = xRe - s*bIm;
+            im[i1] = xIm + s*bRe;
+            re[i2] = xRe + s*bIm;
+            im[i2] = xIm - s*bRe;
+        }
+    }
+
+    private void radix4(double [] re, double [] im, int offset,
+                        int m, int twiddleStep) {
+        double t1Re, t1Im, t2Re, t2Im, t3Re, t3Im, xRe, xIm;
+        double aRe, aIm, bRe, bIm, cRe, cIm, dRe, dIm;
+        int w1, w2, w3;
+        for (int k = 0; k < m; k++){
+            int i0 = offset + k, i1 = i0 + m, i2 = i1 + m, i3 = i2 + m;
+            w1 = k*twiddleStep;
+            w2 = 2*w1;
+            w3 = 3*w1;
+            xRe = re[i1];
+            xIm = im[i1];
+            t1Re = xRe*this.wRe[w1] - xIm*this.wIm[w1];
+            t1Im = xRe*this.wIm[w1] + xIm*this.wRe[w1];
+            xRe = re[i2];
+            xIm = im[i2];
+            t2Re = xRe*this.wRe[w2] - xIm*this.wIm[w2];
+            t2Im = xRe*this.wIm[w2] + xIm*this.wRe[w2];
+            xRe = re[i3];
+            xIm = im[i3];
+            t3Re = xRe*this.wRe[w3] - xIm*this.wIm[w3];
+            t3Im = xRe*this.wIm[w3] + xIm*this.wRe[w3];
+            aRe = re[i0] + t2Re;
+            aIm = im[i0] + t2Im;
+            bRe = re[i0] - t2Re;
+            bIm = im[i0] - t2Im;
+            cRe = t1Re + t3Re;
+            cIm = t1Im + t3Im;
+            // d = sign*i*(t1 - t3)
+            dRe = -this.sign*(t1Im - t3Im);
+            dIm = this.sign*(t1Re - t3Re);
+            re[i0] = aRe + cRe;
+            im[i0] = aIm + cIm;
+            re[i1] = bRe + dRe;
+            im[i1] = bIm + dIm;
+            re[i2] = aRe - cRe;
+            im[i2] = aIm - cIm;
+            re[i3] = bRe - dRe;
+            im[i3] = bIm - dIm;
+        }
+    }
+
+    private void radix5(double [] re, double [] im, int offset,
+                        int m, int twiddleStep) {
+        final double c1 = 0.30901699437494742410;
+        final double c2 = -0.80901699437494742410;
+        final double s1 = this.sign*0.95105651629515357212;
+        final double s2 = this.sign*0.58778525229247312917;
+        double [] wRe = this.wRe, wIm = this.wIm;
+        double t1Re, t1Im, t2Re, t2Im, t3Re, t3Im, t4Re, t4Im, xRe, xIm;
+        double a1Re, a1Im, a2Re, a2Im, b1Re, b1Im, b2Re, b2Im;
+        double uRe, uIm, vRe, vIm, yRe, yIm, zRe, zIm;
+        int w;
+        for (int k = 0; k < m; k++){
+            int i0 = offset + k, i1 = i0 + m, i2 = i1 + m,
+                    i3 = i2 + m, i4 = i3 + m;
+            w = k*twiddleStep;
+            xRe = re[i1];
+            xIm = im[i1];
+            t1Re = xRe*wRe[w] - xIm*wIm[w];
+            t1Im = xRe*wIm[w] + xIm*wRe[w];
+            xRe = re[i2];
+            xIm = im[i2];
+            t2Re = xRe*wRe[2*w] - xIm*wIm[2*w];
+            t2Im = xRe*wIm[2*w] + xIm*wRe[2*w];
+            xRe = re[i3];
+            xIm = im[i3];
+            t3Re = xRe*wRe[3*w] - xIm*wIm[3*w];
+            t3Im = xRe*wIm[3*w] + xIm*wRe[3*w];
+            xRe = re[i4];
+            xIm = im[i4];
+            t4Re = xRe*wRe[4*w] - xIm*wIm[4*w];
+            t4Im = xRe*wIm[4*w] + xIm*wRe[4*w];
+            a1Re = t1Re + t4Re;
+            a1Im = t1Im + t4Im;
+            b1Re = t1Re - t4Re;
+            b1Im = t1Im - t4Im;
+            a2Re = t2Re + t3Re;
+            a2Im = t2Im + t3Im;
+            b2Re = t2Re - t3Re;
+            b2Im = t2Im - t3Im;
+            xRe = re[i0];
+            xIm = im[i0];
+            uRe = xRe + c1*a1Re + c2*a2Re;
+            uIm = xIm + c1*a1Im + c2*a2Im;
+            vRe = xRe + c2*a1Re + c1*a2Re;
+            vIm = xIm + c2*a1Im + c1*a2Im;
+            // y = s1*b1 + s2*b2 and z = s2*b1 - s1*b2, times i
+            yRe = -(s1*b1Im + s2*b2Im);
+            yIm = s1*b1Re + s2*b2Re;
+            zRe = -(s2*b1Im - s1*b2Im);
+            zIm = s2*b1Re - s1*b2Re;
+            re[i0] = xRe + a1Re + a2Re;
+            im[i0] = xIm + a1Im + a2Im;
+            re[i1] = uRe + yRe;
+            im[i1] = uIm + yIm;
+            re[i4] = uRe - yRe;
+            im[i4] = uIm - yIm;
+            re[i2] = vRe + zRe;
+            im[i2] = vIm + zIm;
+            re[i3] = vRe - zRe;
+            im[i3] = vIm - zIm;
+        }
+    }
+
+    private void radixGeneric(double [] re, double [] im, int offset,
+                              int m, int p, int twiddleStep,
+                              double [] tRe, double [] tIm) {
+        // exp(sign*2*pi*i*r/p) is entry r*(n/p) of the table.
+        int rootStep = this.n/p;
+        double xRe, xIm, sumRe, sumIm;
+        int w, r;
+        for (int k = 0; k < m; k++){
+            for (int q = 0; q < p; q++){
+                w = q*k*twiddleStep;
+                xRe = re[offset + q*m + k];
+                xIm = im[offset + q*m + k];
+                tRe[q] = xRe*this.wRe[w] - xIm*this.wIm[w];
+                tIm[q] = xRe*this.wIm[w] + xIm*this.wRe[w];
+            }
+            for (int s = 0; s < p; s++){
+                sumRe = tRe[0];
+                sumIm = tIm[0];
+                r = 0;
+                for (int q = 1; q < p; q++){
+                    r += s;
+                    if (r >= p){
+                        r -= p;
+                    }
+                    w = r*rootStep;
+                    sumRe += tRe[q]*this.wRe[w] - tIm[q]*this.wIm[w];
+                    sumIm += tRe[q]*this.wIm[w] + tIm[q]*this.wRe[w];
+                }
+                re[offset + s*m + k] = sumRe;
+                im[offset + s*m + k] = sumIm;
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package side.project.complex;
+
+/*
+Where the 1/n factor of a Fourier transform pair goes. Transforming
+with a convention and then inverting with the same convention always
+gives back the original signal.*/
+public enum Normalization {
+
+    /*
+    Forward transform divided by n, inverse not scaled. This is what
+    fourierTransform and fastFourierTransform have always returned:
+    the bins are the amplitudes of the circles of a sketch.*/
+    FORWARD,
+
+    /*
+    Forward transform not scaled, inverse divided by n. This matches
+    inPlaceFastFourierTransform.*/
+    BACKWARD,
+
+    /*
+    Both directions divided by sqrt(n), which keeps the energy of the
+    signal unchanged.*/
+    ORTHO;
+
+    double forwardScale(int n) {
+        switch (this){
+            case FORWARD:
+                return 1.0/n;
+            case ORTHO:
+                return 1.0/Math.sqrt(n);
+            default:
+                return 1.0;
+        }
+    }
+
+    double inverseScale(int n) {
+        switch (this){
+            case BACKWARD:
+                return 1.0/n;
+            case ORTHO:
+                return 1.0/Math.sqrt(n);
+            default:
+                return 1.0;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package side.project.complex;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/*
+Runs a loop body over the index range [0, n), splitting it in half
+recursively on a fork join pool (the common pool unless one is given)
+until the pieces are no longer than threshold. Ranges that are
+already small enough run on the calling thread.
+
+The split points only depend on n and threshold, never on the
+number of threads, so reductions always combine the same partial
+results in the same order and give the same answer every time.*/
+final class ParallelRange {
+
+    interface Body {
+        void run(int from, int to);
+    }
+
+    interface Partial<T> {
+        T run(int from, int to);
+    }
+
+    private ParallelRange() {}
+
+    static void forEach(int n, int threshold, Body body) {
+        forEach(ForkJoinPool.commonPool(), n, threshold, body);
+    }
+
+    /*
+    Same as above on the given pool.*/
+    static void forEach(ForkJoinPool pool, int n, int threshold, Body body) {
+        if (n <= threshold || pool.getParallelism() < 2){
+            body.run(0, n);
+        }
+        else{
+            pool.invoke(new Task(0, n, Math.max(1, threshold), body));
+        }
+    }
+
+    static <T> T reduce(int n, int threshold, Partial<T> body,
+                        BinaryOperator<T> combine) {
+        if (n <= threshold || ForkJoinPool.getCommonPoolParallelism() < 2){
+            return reduceSequential(0, n, Math.max(1, threshold),
+                    body, combine);
+        }
+        return ForkJoinPool.commonPool().invoke(
+                new ReduceTask<>(0, n, Math.max(1, threshold),
+                        body, combine));
+    }
+
+    /*
+    Same splitting as ReduceTask, so that the result does not depend
+    on whether the pool was used.*/
+    private static <T> T reduceSequential(int from, int to, int threshold,
+                                          Partial<T> body,
+                                          BinaryOperator<T> combine) {
+        if (to - from <= threshold){
+            return body.run(from, to);
+        }
+        int mid = (from + to) >>> 1;
+        return combine.apply(
+                reduceSequential(from, mid, threshold, body, combine),
+                reduceSequential(mid, to, threshold, body, combine));
+    }
+
+    private static class Task extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to, threshold;
+        private final Body body;
+
+        Task(int from, int to, int threshold, Body body) {
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= this.threshold){
+                this.body.run(this.from, this.to);
+            }
+            else{
+                int mid = (this.from + this.to) >>> 1;
+                invokeAll(new Task(this.from, mid, this.threshold, this.body),
+                        new Task(mid, this.to, this.threshold, this.body));
+            }
+        }
+    }
+
+    private static class ReduceTask<T> extends RecursiveTask<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to, threshold;
+        private final Partial<T> body;
+        private final BinaryOperator<T> combine;
+
+        ReduceTask(int from, int to, int threshold,
+                   Partial<T> body, BinaryOperator<T> combine) {
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.body = body;
+            this.combine = combine;
+        }
+
+        @Override
+        protected T compute() {
+            if (this.to - this.from <= this.threshold){
+                return this.body.run(this.from, this.to);
+            }
+            int mid = (this.from + this.to) >>> 1;
+            ReduceTask<T> left = new ReduceTask<>(this.from, mid,
+                    this.threshold, this.body, this.combine);
+            ReduceTask<T> right = new ReduceTask<>(mid, this.to,
+                    this.threshold, this.body, this.combine);
+            left.fork();
+            T rightResult = right.compute();
+            return this.combine.apply(left.join(), rightResult);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package side.project.complex;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+Small least recently used cache of precomputed transform tables,
+keyed by a long that encodes the size and direction.
+
+Callers look a value up with get, and on a miss build it without
+holding any lock (building one plan can need another one) and hand
+it to put, which keeps whichever value was stored first:
+
+    T plan = CACHE.get(key);
+    if (plan == null){
+        plan = CACHE.put(key, new T(...));
+    }
+
+The entry returned last is also kept on the side, so looking up the
+same size over and over neither locks nor boxes the key.*/
+final class PlanCache<T> {
+
+    private static final class Entry<T> {
+        final long key;
+        final T value;
+
+        Entry(long key, T value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private final Map<Long, T> map;
+    private volatile Entry<T> recent;
+
+    PlanCache(final int capacity) {
+        this.map = new LinkedHashMap<Long, T>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, T> eldest) {
+                return this.size() > capacity;
+            }
+        };
+    }
+
+    T get(long key) {
+        Entry<T> entry = this.recent;
+        if (entry != null && entry.key == key){
+            return entry.value;
+        }
+        T value;
+        synchronized (this.map){
+            value = this.map.get(key);
+        }
+        if (value != null){
+            this.recent = new Entry<>(key, value);
+        }
+        return value;
+    }
+
+    T put(long key, T value) {
+        synchronized (this.map){
+            T cached = this.map.putIfAbsent(key, value);
+            if (cached != null){
+                value = cached;
+            }
+        }
+        this.recent = new Entry<>(key, value);
+        return value;
+    }
+}
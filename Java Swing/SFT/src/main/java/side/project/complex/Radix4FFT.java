@@ -0,0 +1,155 @@
+package side.project.complex;
+
+/*
+In place radix-4 FFT for power of two lengths.
+
+After the usual bit reversal, every two radix-2 stages are merged
+into one radix-4 stage. For a block of 4q values made of the four
+transforms A, B, C and D of length q, and w = exp(sign*2*pi*i*k/4q),
+
+    tB = w^2*B[k],  tC = w*C[k],  tD = w^3*D[k]
+    X[k]      = (A[k] + tB) + (tC + tD)
+    X[k + 2q] = (A[k] + tB) - (tC + tD)
+    X[k + q]  = (A[k] - tB) + sign*i*(tC - tD)
+    X[k + 3q] = (A[k] - tB) - sign*i*(tC - tD)
+
+which needs three complex multiplications for four outputs instead
+of the four used by two radix-2 stages, and makes half as many
+passes over the data. Multiplying by sign*i is a swap and a sign
+change, and the k = 0 butterflies, where every twiddle factor is 1,
+skip the multiplications altogether. When log2(n) is odd a single
+radix-2 stage of trivial butterflies comes first.
+
+The result is unnormalized, like inPlaceFastFourierTransform.
+Instances hold the twiddle table for one length and sign and are
+immutable, so they can be shared between threads, and forSize keeps
+the most recently used ones in a small cache.*/
+final class Radix4FFT {
+
+    private static final PlanCache<Radix4FFT> CACHE = new PlanCache<>(16);
+
+    private final int n;
+    private final int sign;
+    // Bit reversal permutation, shared with the radix-2 FftPlan.
+    private final int [] swaps;
+    // wRe[t] + i wIm[t] = exp(sign*2*pi*i*t/n), for t < 3n/4
+    private final double [] wRe;
+    private final double [] wIm;
+
+    Radix4FFT(int n, int sign) {
+        if (n < 1 || (n & (n - 1)) != 0){
+            throw new IllegalArgumentException(
+                    "Size must be a power of two: " + n);
+        }
+        this.n = n;
+        this.sign = sign;
+        this.swaps = FftPlan.forSize(n).swaps;
+        int tableSize = Math.max(1, 3*n/4);
+        this.wRe = new double[tableSize];
+        this.wIm = new double[tableSize];
+        double angle = sign*Complex.TAU/n;
+        for (int t = 0; t < tableSize; t++){
+            this.wRe[t] = Math.cos(angle*t);
+            this.wIm[t] = Math.sin(angle*t);
+        }
+    }
+
+    /*
+    The transform for length n and the given sign of the exponent,
+    from the cache when possible.*/
+    static Radix4FFT forSize(int n, int sign) {
+        long key = sign*(long)n;
+        Radix4FFT plan = CACHE.get(key);
+        if (plan == null){
+            plan = CACHE.put(key, new Radix4FFT(n, sign));
+        }
+        return plan;
+    }
+
+    int size() {
+        return this.n;
+    }
+
+    void transform(double [] re, double [] im) {
+        int n = this.n;
+        int [] swaps = this.swaps;
+        int a, b;
+        double tmp;
+        for (int k = 0; k < swaps.length; k += 2){
+            a = swaps[k];
+            b = swaps[k + 1];
+            tmp = re[a];
+            re[a] = re[b];
+            re[b] = tmp;
+            tmp = im[a];
+            im[a] = im[b];
+            im[b] = tmp;
+        }
+        int q = 1;
+        if (Integer.numberOfTrailingZeros(n) % 2 == 1){
+            double r, i;
+            for (int j = 0; j < n; j += 2){
+                r = re[j + 1];
+                i = im[j + 1];
+                re[j + 1] = re[j] - r;
+                im[j + 1] = im[j] - i;
+                re[j] += r;
+                im[j] += i;
+            }
+            q = 2;
+        }
+        for (; 4*q <= n; q *= 4){
+            int blockSize = 4*q;
+            int twiddleStep = n/blockSize;
+            for (int j = 0; j < n; j += blockSize){
+                this.trivialButterfly(re, im, j, q);
+                for (int k = 1; k < q; k++){
+                    this.butterfly(re, im, j + k, q, k*twiddleStep);
+                }
+            }
+        }
+    }
+
+    private void trivialButterfly(double [] re, double [] im, int i0, int q) {
+        int i1 = i0 + q, i2 = i1 + q, i3 = i2 + q;
+        double s0Re = re[i0] + re[i1], s0Im = im[i0] + im[i1];
+        double s1Re = re[i0] - re[i1], s1Im = im[i0] - im[i1];
+        double s2Re = re[i2] + re[i3], s2Im = im[i2] + im[i3];
+        // s3 = sign*i*(C - D)
+        double s3Re = -this.sign*(im[i2] - im[i3]);
+        double s3Im = this.sign*(re[i2] - re[i3]);
+        re[i0] = s0Re + s2Re;
+        im[i0] = s0Im + s2Im;
+        re[i2] = s0Re - s2Re;
+        im[i2] = s0Im - s2Im;
+        re[i1] = s1Re + s3Re;
+        im[i1] = s1Im + s3Im;
+        re[i3] = s1Re - s3Re;
+        im[i3] = s1Im - s3Im;
+    }
+
+    private void butterfly(double [] re, double [] im, int i0, int q, int w) {
+        int i1 = i0 + q, i2 = i1 + q, i3 = i2 + q;
+        double [] wRe = this.wRe, wIm = this.wIm;
+        int w2 = 2*w, w3 = 3*w;
+        double bRe = wRe[w2]*re[i1] - wIm[w2]*im[i1];
+        double bIm = wRe[w2]*im[i1] + wIm[w2]*re[i1];
+        double cRe = wRe[w]*re[i2] - wIm[w]*im[i2];
+        double cIm = wRe[w]*im[i2] + wIm[w]*re[i2];
+        double dRe = wRe[w3]*re[i3] - wIm[w3]*im[i3];
+        double dIm = wRe[w3]*im[i3] + wIm[w3]*re[i3];
+        double s0Re = re[i0] + bRe, s0Im = im[i0] + bIm;
+        double s1Re = re[i0] - bRe, s1Im = im[i0] - bIm;
+        double s2Re = cRe + dRe, s2Im = cIm + dIm;
+        double s3Re = -this.sign*(cIm - dIm);
+        double s3Im = this.sign*(cRe - dRe);
+        re[i0] = s0Re + s2Re;
+        im[i0] = s0Im + s2Im;
+        re[i2] = s0Re - s2Re;
+        im[i2] = s0Im - s2Im;
+        re[i1] = s1Re + s3Re;
+        im[i1] = s1Im + s3Im;
+        re[i3] = s1Re - s3Re;
+        im[i3] = s1Im - s3Im;
+    }
+}
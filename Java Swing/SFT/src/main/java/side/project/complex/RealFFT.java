@@ -0,0 +1,160 @@
+package side.project.complex;
+
+import java.util.Arrays;
+
+/*
+FFT of real signals, computed with a complex transform of half the
+length.
+
+The spectrum of a real signal is Hermitian, X[n - k] = conj(X[k]),
+so only the n/2 + 1 bins k = 0, ..., n/2 are kept. For even n the
+samples are packed in pairs, z[m] = x[2m] + i x[2m + 1], and after
+the n/2 point transform Z of z the spectra of the even and odd
+samples are separated again with
+
+    E[k] = (Z[k] + conj(Z[n/2 - k]))/2
+    O[k] = (Z[k] - conj(Z[n/2 - k]))/(2i)
+    X[k] = E[k] + exp(2*pi*i*k/n)*O[k]
+
+The inverse runs the same steps backwards. Odd lengths cannot be
+paired, and use a full length complex transform instead.
+
+Both directions are unnormalized: the inverse of the forward
+transform returns n times the original signal. Instances are
+immutable, apart from per thread scratch, and are cached by size.*/
+final class RealFFT {
+
+    private static final PlanCache<RealFFT> CACHE = new PlanCache<>(16);
+
+    private final int n;
+    private final int half;
+    private final FftPlan forward;
+    private final FftPlan inverse;
+    // exp(2*pi*i*k/n) for k <= n/2, only for even n.
+    private final double [] wRe;
+    private final double [] wIm;
+    private final ThreadLocal<double [][]> scratch;
+
+    private RealFFT(int n) {
+        this.n = n;
+        boolean even = n % 2 == 0;
+        this.half = n/2;
+        int length = even? this.half: n;
+        this.forward = FftPlan.forSize(length, FftPlan.Direction.FORWARD);
+        this.inverse = FftPlan.forSize(length, FftPlan.Direction.INVERSE);
+        if (even){
+            this.wRe = new double[this.half + 1];
+            this.wIm = new double[this.half + 1];
+            double angle = Complex.TAU/n;
+            for (int k = 0; k <= this.half; k++){
+                this.wRe[k] = Math.cos(angle*k);
+                this.wIm[k] = Math.sin(angle*k);
+            }
+        }
+        else{
+            this.wRe = null;
+            this.wIm = null;
+        }
+        this.scratch = ThreadLocal.withInitial(
+                () -> new double[2][length]);
+    }
+
+    static RealFFT forSize(int n) {
+        if (n < 1){
+            throw new IllegalArgumentException("Size must be positive: " + n);
+        }
+        RealFFT plan = CACHE.get(n);
+        if (plan == null){
+            plan = CACHE.put(n, new RealFFT(n));
+        }
+        return plan;
+    }
+
+    int size() {
+        return this.n;
+    }
+
+    /*
+    Writes bins 0 to n/2 of the transform of the n samples in x to
+    (outRe, outIm).*/
+    void forward(double [] x, double [] outRe, double [] outIm) {
+        double [][] buffers = this.scratch.get();
+        double [] zRe = buffers[0], zIm = buffers[1];
+        if (this.wRe == null){
+            System.arraycopy(x, 0, zRe, 0, this.n);
+            Arrays.fill(zIm, 0.0);
+            this.forward.transform(zRe, zIm, 0);
+            System.arraycopy(zRe, 0, outRe, 0, this.half + 1);
+            System.arraycopy(zIm, 0, outIm, 0, this.half + 1);
+            return;
+        }
+        int half = this.half;
+        for (int m = 0; m < half; m++){
+            zRe[m] = x[2*m];
+            zIm[m] = x[2*m + 1];
+        }
+        this.forward.transform(zRe, zIm, 0);
+        double aRe, aIm, bRe, bIm, eRe, eIm, oRe, oIm;
+        for (int k = 0; k <= half; k++){
+            int i = (k == half)? 0: k;
+            int j = (k == 0)? 0: half - k;
+            aRe = zRe[i];
+            aIm = zIm[i];
+            bRe = zRe[j];
+            bIm = -zIm[j];
+            eRe = 0.5*(aRe + bRe);
+            eIm = 0.5*(aIm + bIm);
+            // (a - b)/(2i)
+            oRe = 0.5*(aIm - bIm);
+            oIm = -0.5*(aRe - bRe);
+            outRe[k] = eRe + this.wRe[k]*oRe - this.wIm[k]*oIm;
+            outIm[k] = eIm + this.wRe[k]*oIm + this.wIm[k]*oRe;
+        }
+    }
+
+    /*
+    Rebuilds n times the real signal whose bins 0 to n/2 are in
+    (inRe, inIm), writing it to x. The imaginary parts of bin 0, and
+    of bin n/2 for even n, are ignored, since they are zero for the
+    spectrum of any real signal.*/
+    void inverse(double [] inRe, double [] inIm, double [] x) {
+        double [][] buffers = this.scratch.get();
+        double [] zRe = buffers[0], zIm = buffers[1];
+        int half = this.half;
+        if (this.wRe == null){
+            zRe[0] = inRe[0];
+            zIm[0] = 0.0;
+            for (int k = 1; k <= half; k++){
+                zRe[k] = inRe[k];
+                zIm[k] = inIm[k];
+                zRe[this.n - k] = inRe[k];
+                zIm[this.n - k] = -inIm[k];
+            }
+            this.inverse.transform(zRe, zIm, 0);
+            System.arraycopy(zRe, 0, x, 0, this.n);
+            return;
+        }
+        double aRe, aIm, bRe, bIm, eRe, eIm, dRe, dIm, oRe, oIm;
+        for (int k = 0; k < half; k++){
+            aRe = inRe[k];
+            aIm = (k == 0)? 0.0: inIm[k];
+            bRe = inRe[half - k];
+            bIm = (k == 0)? 0.0: -inIm[half - k];
+            eRe = 0.5*(aRe + bRe);
+            eIm = 0.5*(aIm + bIm);
+            // O = (a - b)/2 * exp(-2*pi*i*k/n)
+            dRe = 0.5*(aRe - bRe);
+            dIm = 0.5*(aIm - bIm);
+            oRe = dRe*this.wRe[k] + dIm*this.wIm[k];
+            oIm = dIm*this.wRe[k] - dRe*this.wIm[k];
+            // Z = E + i O
+            zRe[k] = eRe - oIm;
+            zIm[k] = eIm + oRe;
+        }
+        this.inverse.transform(zRe, zIm, 0);
+        for (int m = 0; m < half; m++){
+            x[2*m] = 2.0*zRe[m];
+            x[2*m + 1] = 2.0*zIm[m];
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package side.project.complex;
+
+import java.util.concurrent.ForkJoinPool;
+
+/*
+A few bins of the discrete Fourier transform,
+
+    X[k] = scale * sum over j of x[j]*exp(2*pi*i*j*k/n)
+
+in O(n) time each, for when far fewer than log(n) bins are needed
+and a full FFT would be wasted.
+
+Each bin keeps the factor p = exp(2*pi*i*j*k/n) and multiplies it by
+exp(2*pi*i*k/n) from one term to the next, so the inner loop has no
+cos or sin. Goertzel's algorithm would need fewer multiplications,
+but its rounding error grows with n^2 for the low frequencies, which
+are the ones usually asked for. The error of the product instead
+grows with the number of steps, and p is recomputed exactly at the
+start of every block of terms, which keeps it near machine
+precision. The blocks, and the spreading of the bins over a fork
+join pool, are the same as in DirectDFT, so the result does not
+depend on the pool either.*/
+final class SelectedDFT {
+
+    private SelectedDFT() {}
+
+    /*
+    Writes bin frequencies[b] mod n of the transform of the n values
+    in (re, im), multiplied by scale, to (outRe[b], outIm[b]). A null
+    pool runs every bin on the calling thread.*/
+    static void transform(final double [] re, final double [] im,
+                          final int n, final int [] frequencies,
+                          final double [] outRe, final double [] outIm,
+                          final double scale, ForkJoinPool pool) {
+        DirectDFT.sumBins(n, frequencies.length,
+                (jFrom, jTo, from, to, sumRe, sumIm) -> {
+                    for (int b = from; b < to; b++){
+                        block(re, im, n, Math.floorMod(frequencies[b], n),
+                                jFrom, jTo, sumRe, sumIm, b - from);
+                    }
+                }, outRe, outIm, scale, pool);
+    }
+
+    private static void block(double [] re, double [] im, int n, int k,
+                              int jFrom, int jTo,
+                              double [] sumRe, double [] sumIm, int b) {
+        double angle = Complex.TAU/n;
+        double stepRe = Math.cos(angle*k);
+        double stepIm = Math.sin(angle*k);
+        double t = ((long)k*jFrom) % n;
+        double pRe = Math.cos(angle*t);
+        double pIm = Math.sin(angle*t);
+        double accRe = sumRe[b], accIm = sumIm[b], tmp;
+        for (int j = jFrom; j < jTo; j++){
+            accRe += re[j]*pRe - im[j]*pIm;
+            accIm += im[j]*pRe + re[j]*pIm;
+            tmp = pRe*stepRe - pIm*stepIm;
+            pIm = pRe*stepIm + pIm*stepRe;
+            pRe = tmp;
+        }
+        sumRe[b] = accRe;
+        sumIm[b] = accIm;
+    }
+}
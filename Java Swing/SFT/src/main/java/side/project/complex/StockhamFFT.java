@@ -0,0 +1,119 @@
+package side.project.complex;
+
+/*
+Out of place Stockham auto-sort FFT for power of two lengths.
+
+Each radix-2 stage reads one buffer and writes the other, placing
+its outputs so that the result of the last stage comes out in
+natural order. There is no bit reversal pass, and every stage reads
+and writes with unit stride. For a stage with sub-transform length l
+and s = n/l interleaved transforms:
+
+    a = x[q + s*p],  b = x[q + s*(p + l/2)]
+    y[q + s*2p]       = a + b
+    y[q + s*(2p + 1)] = (a - b)*exp(sign*2*pi*i*p/l)
+
+for p < l/2 and q < s. The price is a second buffer of n values.
+
+The result is unnormalized, like inPlaceFastFourierTransform.
+Instances hold the twiddle table for one length and sign and are
+immutable, so they can be shared between threads.
+
+Reference:
+
+http://wwwa.pikara.ne.jp/okojisan/otfft-en/stockham1.html*/
+final class StockhamFFT {
+
+    private final int n;
+    private final int stages;
+    // wRe[t] + i wIm[t] = exp(sign*2*pi*i*t/n), for t < n/2
+    private final double [] wRe;
+    private final double [] wIm;
+
+    StockhamFFT(int n, int sign) {
+        if (n < 1 || (n & (n - 1)) != 0){
+            throw new IllegalArgumentException(
+                    "Size must be a power of two: " + n);
+        }
+        this.n = n;
+        this.stages = Integer.numberOfTrailingZeros(n);
+        this.wRe = new double[n/2];
+        this.wIm = new double[n/2];
+        double angle = sign*Complex.TAU/n;
+        for (int t = 0; t < n/2; t++){
+            this.wRe[t] = Math.cos(angle*t);
+            this.wIm[t] = Math.sin(angle*t);
+        }
+    }
+
+    int size() {
+        return this.n;
+    }
+
+    /*
+    Transforms (inRe, inIm) into (outRe, outIm), using (workRe,
+    workIm) as the second buffer. The input is left untouched. The
+    four output and work arrays must be distinct from each other and
+    from the input, and hold at least n values.*/
+    void transform(double [] inRe, double [] inIm,
+                   double [] outRe, double [] outIm,
+                   double [] workRe, double [] workIm) {
+        if (this.stages == 0){
+            outRe[0] = inRe[0];
+            outIm[0] = inIm[0];
+            return;
+        }
+        // Stages alternate between out and work, ending in out.
+        double [] xRe = inRe, xIm = inIm;
+        double [] yRe, yIm;
+        int s = 1, stage = 0;
+        for (int l = this.n; l > 1; l /= 2){
+            boolean toOut = (this.stages - stage) % 2 == 1;
+            yRe = toOut? outRe: workRe;
+            yIm = toOut? outIm: workIm;
+            this.stage(xRe, xIm, yRe, yIm, l, s);
+            xRe = yRe;
+            xIm = yIm;
+            s *= 2;
+            stage++;
+        }
+    }
+
+    private void stage(double [] xRe, double [] xIm,
+                       double [] yRe, double [] yIm, int l, int s) {
+        int half = l/2;
+        // exp(sign*2*pi*i*p/l) is entry p*(n/l) = p*s of the table.
+        int twiddleStep = s;
+        double cosVal, sinVal, aRe, aIm, bRe, bIm, dRe, dIm;
+        for (int p = 0; p < half; p++){
+            cosVal = this.wRe[p*twiddleStep];
+            sinVal = this.wIm[p*twiddleStep];
+            int a = s*p, b = s*(p + half), even = s*2*p, odd = even + s;
+            if (p == 0){
+                for (int q = 0; q < s; q++){
+                    aRe = xRe[a + q];
+                    aIm = xIm[a + q];
+                    bRe = xRe[b + q];
+                    bIm = xIm[b + q];
+                    yRe[even + q] = aRe + bRe;
+                    yIm[even + q] = aIm + bIm;
+                    yRe[odd + q] = aRe - bRe;
+                    yIm[odd + q] = aIm - bIm;
+                }
+                continue;
+            }
+            for (int q = 0; q < s; q++){
+                aRe = xRe[a + q];
+                aIm = xIm[a + q];
+                bRe = xRe[b + q];
+                bIm = xIm[b + q];
+                yRe[even + q] = aRe + bRe;
+                yIm[even + q] = aIm + bIm;
+                dRe = aRe - bRe;
+                dIm = aIm - bIm;
+                yRe[odd + q] = dRe*cosVal - dIm*sinVal;
+                yIm[odd + q] = dRe*sinVal + dIm*cosVal;
+            }
+        }
+    }
+}
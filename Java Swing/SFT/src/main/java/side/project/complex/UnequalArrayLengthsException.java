@@ -0,0 +1,8 @@
+package side.project.complex;
+
+/*
+Thrown when two arrays or vectors that are combined element by
+element do not have the same length.*/
+public class UnequalArrayLengthsException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+}
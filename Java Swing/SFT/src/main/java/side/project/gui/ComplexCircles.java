@@ -1,41 +1,79 @@
 package side.project.gui;
 
-import side.project.complex.Complex;
 import side.project.complex.ComplexArray;
-import side.project.complex.Functions;
+import side.project.complex.ComplexValue;
+import side.project.complex.ComplexVector;
+import side.project.complex.FftPlanner;
 import side.project.complex.FourierTransform;
+import side.project.complex.Normalization;
 
 import java.awt.*;
 
 class ComplexCircles {
-    ComplexArray ftAmps;
-    ComplexArray lineDrawn;
-    ComplexArray original;
+    ComplexVector ftAmps;
+    ComplexVector lineDrawn;
+    ComplexVector original;
     double [] frequencies;
     int pointsPerInterval;
-    Complex prev;
-    Complex next;
+    // Number of points of the sketch, which sets the speed of every
+    // circle even when only some of them are drawn.
+    int signalSize;
     double freq = 0.0;
+    // Tip of the chain of circles drawn so far. Kept as two doubles,
+    // so that the ComplexValues below never escape and can be
+    // scalar replaced.
+    double prevRe, prevIm;
     ComplexCircles(ComplexArray array) {
-        pointsPerInterval = 4;
-        lineDrawn = new ComplexArray();
-        original = array.clone();
-        //original = array;
-        this.alleviateGibbs(array);
-        ftAmps = FourierTransform.fourierTransform(array);
+        this(ComplexVector.fromComplexArray(array));
+    }
+    ComplexCircles(ComplexVector array) {
+        this.setUp(array);
+        // The planner's engine when it is known. A new size is
+        // measured in the background, not on the Swing thread.
+        ftAmps = FftPlanner.cachedFastFourierTransform(array,
+                Normalization.FORWARD);
         frequencies =
                 FourierTransform.fourierFrequencies(
                         array.size());
     }
-    void alleviateGibbs(ComplexArray array) {
-        Complex distance
-                = array.get(0).subtract(array.get(array.size()-1));
+    ComplexCircles(ComplexArray array, int maxFrequency) {
+        this(ComplexVector.fromComplexArray(array), maxFrequency);
+    }
+    // Only the circles with |frequency| <= maxFrequency. For a long
+    // sketch and a few circles this skips the full transform. Shorter
+    // sketches keep all their circles.
+    ComplexCircles(ComplexVector array, int maxFrequency) {
+        this.setUp(array);
+        if (2*maxFrequency + 1 >= signalSize) {
+            ftAmps = FftPlanner.cachedFastFourierTransform(array,
+                    Normalization.FORWARD);
+        } else {
+            ftAmps = FourierTransform.lowFrequencyFourierTransform(array,
+                    maxFrequency);
+        }
+        frequencies =
+                FourierTransform.fourierFrequencies(
+                        ftAmps.size());
+    }
+    void setUp(ComplexVector array) {
+        pointsPerInterval = 4;
+        lineDrawn = new ComplexVector();
+        original = array.copy();
+        //original = array;
+        this.alleviateGibbs(array);
+        signalSize = array.size();
+    }
+    void alleviateGibbs(ComplexVector array) {
+        ComplexValue distance = ComplexValue.of(
+                array.getReal(0) - array.getReal(array.size()-1),
+                array.getImag(0) - array.getImag(array.size()-1));
         double d = distance.getAbs();
         int l = (int)(d*10/300);
+        array.ensureCapacity(array.size() + l);
         for (int i = 1; i < l; i++){
-            array.add(array.get(array.size()-1).getReal()
+            array.add(array.getReal(array.size()-1)
                             + distance.getReal()/l,
-                    array.get(array.size()-1).getImag()
+                    array.getImag(array.size()-1)
                             + distance.getImag()/l
             );
         }
@@ -43,21 +81,23 @@ class ComplexCircles {
     void drawOriginal(Graphics g) {
         for (int i = 0; i < original.size() - 1; i++) {
             g.drawLine(
-                    (int)original.get(i).getReal(),
-                    (int)original.get(i).getImag(),
-                    (int)original.get(i + 1).getReal(),
-                    (int)original.get(i + 1).getImag()
+                    (int)original.getReal(i),
+                    (int)original.getImag(i),
+                    (int)original.getReal(i + 1),
+                    (int)original.getImag(i + 1)
             );
         }
     }
     void updateOneCircle(Graphics g, int i) {
         freq = -frequencies[i] * Math.PI * 2.0 / (
-                pointsPerInterval * ftAmps.size());
-        ftAmps.get(i).multiplyBy(Functions.exp(0.0, freq));
-        next = ftAmps.get(i).add(prev);
+                pointsPerInterval * signalSize);
+        ftAmps.multiplyBy(i, Math.cos(freq), Math.sin(freq));
+        ComplexValue prev = ComplexValue.of(prevRe, prevIm);
+        ComplexValue next
+                = prev.add(ftAmps.getReal(i), ftAmps.getImag(i));
         g.drawLine((int)prev.getReal(), (int)prev.getImag(),
                 (int)next.getReal(), (int)next.getImag());
-        double radius = ftAmps.get(i).getAbs();
+        double radius = ftAmps.getAbs(i);
         g.setColor(Color.ORANGE);
         g.drawOval(
                 (int)(prev.getReal() - radius),
@@ -66,16 +106,15 @@ class ComplexCircles {
                 2*(int)radius
         );
         g.setColor(Color.WHITE);
-        Complex.swapComplex(prev, next);
+        prevRe = next.getReal();
+        prevIm = next.getImag();
     }
     void update(Graphics g) {
         g.setColor(Color.GRAY);
         this.drawOriginal(g);
         g.setColor(Color.WHITE);
-        prev = new Complex(
-                ftAmps.get(0).getReal(),
-                ftAmps.get(0).getImag()
-        );
+        prevRe = ftAmps.getReal(0);
+        prevIm = ftAmps.getImag(0);
 		int half_n = (ftAmps.size()%2 == 1)?
                 		ftAmps.size()/2 + 1: ftAmps.size()/2;
         for (int i = 1, k =ftAmps.size() - 1;
@@ -88,20 +127,20 @@ class ComplexCircles {
         }
         g.setColor(Color.WHITE);
         int n = lineDrawn.size();
-        lineDrawn.add(prev.getReal(), prev.getImag());
+        lineDrawn.add(prevRe, prevIm);
         if (!(lineDrawn.isEmpty() || lineDrawn.size() == 1)) {
             for (int i = 0; i < lineDrawn.size() - 1; i++) {
                 g.drawLine(
-                        (int)lineDrawn.get(i).getReal(),
-                        (int)lineDrawn.get(i).getImag(),
-                        (int)lineDrawn.get(i + 1).getReal(),
-                        (int)lineDrawn.get(i + 1).getImag()
+                        (int)lineDrawn.getReal(i),
+                        (int)lineDrawn.getImag(i),
+                        (int)lineDrawn.getReal(i + 1),
+                        (int)lineDrawn.getImag(i + 1)
                 );
             }
         }
         if (lineDrawn.size()
-                == pointsPerInterval*(ftAmps.size())) {
-            lineDrawn = new ComplexArray();
+                == pointsPerInterval*signalSize) {
+            lineDrawn.clear();
         }
     }
 }
\ No newline at end of file
@@ -18,6 +18,9 @@ class Canvas extends JPanel implements MouseListener, KeyListener {
     SketchState sketchState;
     int width, height;
     ComplexCircles circles;
+    // Circles with higher frequencies are too small to be seen, so
+    // long sketches only compute and draw these.
+    static final int MAX_FREQUENCY = 300;
 
     public Canvas(int WIDTH, int HEIGHT) {
         super();
@@ -75,7 +78,8 @@ class Canvas extends JPanel implements MouseListener, KeyListener {
                 this.showSketch(g);
                 break;
             case CLEAR_SKETCH:
-                this.circles = new ComplexCircles(this.sketchArray);
+                this.circles = new ComplexCircles(this.sketchArray,
+                        MAX_FREQUENCY);
 				this.clear(g);
                 this.sketchState = SketchState.ANIMATION;
                 break;
@@ -95,6 +95,40 @@ public class TestComplexArray {
         );
     }
 
+    @Test
+    public void testCloneIsDeep() {
+        ComplexArray z = new ComplexArray(
+                new double [] {1.0, 2.0}, new double [] {-1.0, 1.0});
+        ComplexArray w = z.clone();
+        w.get(0).multiplyBy(2.0);
+        Assert.assertEquals("[1.0 - 1.0i, 2.0 + 1.0i]", z.toString());
+        Assert.assertEquals("[2.0 - 2.0i, 2.0 + 1.0i]", w.toString());
+    }
+
+    @Test
+    public void testViews() {
+        ComplexArray z = new ComplexArray(
+                new double [] {0.0, 1.0, 2.0, 3.0, 4.0, 5.0});
+        Assert.assertEquals("[0, 2.0, 4.0]",
+                z.view(0, 3, 2).toString());
+        Assert.assertEquals("[5.0, 4.0, 3.0, 2.0, 1.0, 0]",
+                z.reversed().toString());
+        Assert.assertEquals("[3.0, 1.0]",
+                z.reversed().view(2, 2, 2).toString());
+        z.slice(1, 3).get(1).addBy(0.0, 1.0);
+        z.reversed().set(0, new Complex(-5.0));
+        Assert.assertEquals("[0, 1.0, 2.0 + 1.0i, 3.0, 4.0, -5.0]",
+                z.toString());
+        try {
+            z.view(1, 4, 2);
+            Assert.fail("Expected an IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            Assert.assertEquals(
+                    "View [offset: 1, length: 4, stride: 2]"
+                            + " does not fit in size 6", e.getMessage());
+        }
+    }
+
     public static void main(String [] args) {
         Result result = JUnitCore.runClasses(TestComplexArray.class);
         int failCount = 0;
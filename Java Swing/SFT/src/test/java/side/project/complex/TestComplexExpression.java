@@ -0,0 +1,77 @@
+import side.project.complex.ComplexExpression;
+import side.project.complex.ComplexVector;
+import side.project.complex.Functions;
+
+import org.junit.Test;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.runner.*;
+import org.junit.runner.notification.Failure;
+
+import static java.lang.System.out;
+
+public class TestComplexExpression {
+
+    public static int testCount = 0;
+
+    @Before
+    public void before() {
+        testCount++;
+    }
+
+    @Test
+    public void matchesFunctionsTest() {
+        ComplexVector t = ComplexVector.linspace(-3.0, 3.0, 2000);
+        ComplexVector expected = Functions.cos(Functions.exp(
+                Functions.sin(t)));
+        ComplexVector w = ComplexExpression.of(t).sin().exp().cos()
+                .evaluate();
+        for (int i = 0; i < t.size(); i++) {
+            Assert.assertEquals(expected.getReal(i), w.getReal(i), 0.0);
+            Assert.assertEquals(expected.getImag(i), w.getImag(i), 0.0);
+        }
+    }
+
+    @Test
+    public void arithmeticTest() {
+        ComplexVector z = new ComplexVector(
+                new double [] {1.0, 2.0, 3.0},
+                new double [] {1.0, -1.0, 0.0});
+        ComplexVector w = new ComplexVector(
+                new double [] {0.0, 1.0, 2.0},
+                new double [] {1.0, 0.0, 0.0});
+        ComplexExpression e = ComplexExpression.of(z)
+                .conj().multiply(w).scale(2.0).add(1.0, 0.5).add(w)
+                .multiply(new double [] {1.0, 1.0, 0.5});
+        Assert.assertEquals("[3.0 + 3.5i, 6.0 + 2.5i, 7.5 + 0.25i]",
+                e.evaluate().toString());
+        Assert.assertEquals("[1.0 + 1.0i, 2.0 - 1.0i, 3.0]",
+                z.toString());
+        e.evaluateInto(z);
+        Assert.assertEquals("[3.0 + 3.5i, 6.0 + 2.5i, 7.5 + 0.25i]",
+                z.toString());
+    }
+
+    @Test
+    public void parallelTest() {
+        ComplexVector t = ComplexVector.linspace(0.0, 100.0, 300001);
+        ComplexExpression e = ComplexExpression.of(t).scale(0.0, 1.0)
+                .exp().scale(0.5, 0.5);
+        ComplexVector sequential = e.evaluate();
+        ComplexVector parallel = e.parallel().evaluate();
+        Assert.assertArrayEquals(sequential.toRealArray(),
+                parallel.toRealArray(), 0.0);
+        Assert.assertArrayEquals(sequential.toImagArray(),
+                parallel.toImagArray(), 0.0);
+    }
+
+    public static void main(String [] args) {
+        Result result = JUnitCore.runClasses(TestComplexExpression.class);
+        int failCount = 0;
+        for (Failure failure: result.getFailures()) {
+            failCount++;
+            out.println(failure.toString());
+        }
+        out.printf("Passed %d/%d\n", (testCount - failCount), testCount);
+    }
+}
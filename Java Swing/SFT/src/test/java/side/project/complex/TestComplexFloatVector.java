@@ -0,0 +1,79 @@
+import side.project.complex.ComplexFloatVector;
+import side.project.complex.ComplexVector;
+import side.project.complex.ComplexVectors;
+import side.project.complex.FourierTransform;
+import side.project.complex.Functions;
+
+import org.junit.Test;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.runner.*;
+import org.junit.runner.notification.Failure;
+
+import static java.lang.System.out;
+
+public class TestComplexFloatVector {
+
+    public static int testCount = 0;
+
+    @Before
+    public void before() {
+        testCount++;
+    }
+
+    @Test
+    public void storageTest() {
+        ComplexFloatVector v = new ComplexFloatVector();
+        v.add(1.0, 2.0);
+        v.add(0.1, -0.5);
+        Assert.assertEquals(2, v.size());
+        Assert.assertEquals(0.1f, v.getReal(1), 0.0f);
+        Assert.assertEquals("[1.0 + 2.0i, -0.5i]",
+                new ComplexFloatVector(new float [] {1f, 0f},
+                        new float [] {2f, -0.5f}).toString());
+        ComplexVector w = v.toComplexVector();
+        Assert.assertEquals((double)0.1f, w.getReal(1), 0.0);
+    }
+
+    @Test
+    public void fastFourierTransformTest() {
+        ComplexVector t = ComplexVector.linspace(-Math.PI, Math.PI, 1024);
+        ComplexVector z = Functions.sin(t);
+        ComplexFloatVector zf = Functions.sin(
+                ComplexFloatVector.fromComplexVector(t));
+        FourierTransform.inPlaceFastFourierTransform(z);
+        FourierTransform.inPlaceFastFourierTransform(zf);
+        double maxAbs = ComplexVectors.maxAbs(z);
+        for (int i = 0; i < z.size(); i++) {
+            Assert.assertEquals(z.getReal(i), zf.getReal(i), 1e-5*maxAbs);
+            Assert.assertEquals(z.getImag(i), zf.getImag(i), 1e-5*maxAbs);
+        }
+    }
+
+    @Test
+    public void elementWiseTest() {
+        ComplexFloatVector a = new ComplexFloatVector(
+                new float [] {1f, 4f}, new float [] {7f, 12f});
+        ComplexFloatVector b = new ComplexFloatVector(
+                new float [] {1f, 2f}, new float [] {-7f, -7f});
+        ComplexFloatVector dest = new ComplexFloatVector(2);
+        ComplexVectors.multiply(a, b, dest);
+        Assert.assertEquals("[50.0, 92.0 - 4.0i]", dest.toString());
+        ComplexVectors.add(a, b, dest);
+        ComplexVectors.scale(dest, 0.0, 2.0, dest);
+        Assert.assertEquals("[4.0i, -10.0 + 12.0i]", dest.toString());
+        ComplexFloatVector e = Functions.exp(new ComplexFloatVector(
+                new float [] {0f}, new float [] {(float)Math.PI}));
+        Assert.assertEquals(-1.0f, e.getReal(0), 1e-7f);
+    }
+
+    public static void main(String [] args) {
+        Result result = JUnitCore.runClasses(TestComplexFloatVector.class);
+        int failCount = 0;
+        for (Failure failure: result.getFailures()) {
+            failCount++;
+            out.println(failure.toString());
+        }
+        out.printf("Passed %d/%d\n", (testCount - failCount), testCount);
+    }
+}
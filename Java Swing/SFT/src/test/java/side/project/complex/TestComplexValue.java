@@ -0,0 +1,65 @@
+import side.project.complex.Complex;
+import side.project.complex.ComplexValue;
+
+import org.junit.Test;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.runner.*;
+import org.junit.runner.notification.Failure;
+
+import static java.lang.System.out;
+
+public class TestComplexValue {
+
+    public static int testCount = 0;
+
+    @Before
+    public void before() {
+        testCount++;
+    }
+
+    @Test
+    public void arithmeticTest() {
+        ComplexValue u = ComplexValue.of(1.0, 7.0);
+        Assert.assertEquals("Evaluate (1 + 7i)(1 - 7i):",
+                "50.0", u.multiply(u.getConj()).toString());
+        Assert.assertEquals("Result of adding 1 + 7i with 2 - 3i:",
+                "3.0 + 4.0i", u.add(2.0, -3.0).toString());
+        Assert.assertEquals("Result of subtracting 1 + 7i by 7i:",
+                "1.0", u.subtract(ComplexValue.of(0.0, 7.0)).toString());
+        Assert.assertEquals("Result of the division of 1 + 7i with 1 + 7i:",
+                "1.0", u.divide(u).toString());
+        Assert.assertEquals("Inverse of 2 + 2i:",
+                "0.25 - 0.25i", ComplexValue.of(2, 2).getInv().toString());
+        Assert.assertEquals("Evaluate 1 + 7i unchanged:",
+                "1.0 + 7.0i", u.toString());
+    }
+
+    @Test
+    public void expTest() {
+        ComplexValue z = ComplexValue.of(1.0, Math.PI).exp();
+        Assert.assertEquals(-Math.exp(1), z.getReal(), 1e-15);
+        Assert.assertEquals(0.0, z.getImag(), 1e-15);
+    }
+
+    @Test
+    public void conversionTest() {
+        Complex z = new Complex(3.0, -4.0);
+        ComplexValue v = z.toValue();
+        z.multiplyBy(2.0);
+        Assert.assertEquals(ComplexValue.of(3.0, -4.0), v);
+        Assert.assertEquals(5.0, v.getAbs(), 0.0);
+        Assert.assertEquals("6.0 - 8.0i", z.toString());
+        Assert.assertEquals("3.0 - 4.0i", v.toComplex().toString());
+    }
+
+    public static void main(String [] args) {
+        Result result = JUnitCore.runClasses(TestComplexValue.class);
+        int failCount = 0;
+        for (Failure failure: result.getFailures()) {
+            failCount++;
+            out.println(failure.toString());
+        }
+        out.printf("Passed %d/%d\n", (testCount - failCount), testCount);
+    }
+}
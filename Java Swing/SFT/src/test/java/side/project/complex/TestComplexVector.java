@@ -0,0 +1,211 @@
+import side.project.complex.ComplexArray;
+import side.project.complex.ComplexVector;
+import side.project.complex.FourierTransform;
+import side.project.complex.Functions;
+
+import org.junit.Test;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.runner.*;
+import org.junit.runner.notification.Failure;
+
+import static java.lang.System.out;
+
+public class TestComplexVector {
+
+    public static int testCount = 0;
+
+    @Before
+    public void before() {
+        testCount++;
+    }
+
+    @Test
+    public void toStringTest() {
+        ComplexVector a = new ComplexVector();
+        Assert.assertEquals("Empty vector:", "[]", a.toString());
+        ComplexVector z = new ComplexVector(
+                new double[] {1.0, 0.0, -1.0},
+                new double[] {2.0, 0.25, -2.0});
+        Assert.assertEquals("[1.0 + 2.0i, 0.25i, -1.0 - 2.0i]",
+                z.toString());
+    }
+
+    @Test
+    public void growTest() {
+        ComplexVector v = ComplexVector.withCapacity(2);
+        Assert.assertEquals(0, v.size());
+        for (int i = 0; i < 100; i++) {
+            v.add(i, -i);
+        }
+        Assert.assertEquals(100, v.size());
+        Assert.assertTrue(v.capacity() >= 100);
+        Assert.assertEquals(99.0, v.getReal(99), 0.0);
+        Assert.assertEquals(-99.0, v.getImag(99), 0.0);
+        v.trimToSize();
+        Assert.assertEquals(100, v.capacity());
+        try {
+            v.getReal(100);
+            Assert.fail("Expected an IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            Assert.assertEquals("Index: 100, Size: 100", e.getMessage());
+        }
+    }
+
+    @Test
+    public void linspaceTest() {
+        ComplexVector t = ComplexVector.linspace(-1.0, 1.0, 5);
+        Assert.assertEquals(5, t.size());
+        Assert.assertEquals(-1.0, t.getReal(0), 0.0);
+        Assert.assertEquals(0.5, t.getReal(3), 1e-15);
+        Assert.assertEquals(1.0, t.getReal(4), 1e-15);
+        Assert.assertEquals(0.0, t.getImag(4), 0.0);
+        Assert.assertEquals(2.0, ComplexVector.linspace(2.0, 3.0, 1).getReal(0), 0.0);
+        Assert.assertTrue(ComplexVector.linspace(0.0, 1.0, 0).isEmpty());
+        try {
+            ComplexVector.linspace(0.0, 1.0, -1);
+            Assert.fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("Negative number of points: -1", e.getMessage());
+        }
+    }
+
+    @Test
+    public void bulkAccessTest() {
+        ComplexVector v = ComplexVector.withCapacity(16);
+        for (int i = 0; i < 5; i++) {
+            v.add(i, -i);
+        }
+        double [] re = new double[4];
+        double [] im = new double[4];
+        v.getValues(2, re, im, 1, 3);
+        Assert.assertArrayEquals(new double [] {0, 2, 3, 4}, re, 0.0);
+        Assert.assertArrayEquals(new double [] {0, -2, -3, -4}, im, 0.0);
+        v.setValues(0, new double [] {7, 8}, new double [] {9, 10}, 0, 2);
+        Assert.assertEquals(8.0, v.getReal(1), 0.0);
+        Assert.assertEquals(10.0, v.getImag(1), 0.0);
+        Assert.assertEquals(2.0, v.getReal(2), 0.0);
+        // Only the first size entries can be reached, whatever the capacity.
+        try {
+            v.setValues(3, re, im, 0, 3);
+            Assert.fail("Expected an IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            Assert.assertEquals("From: 3, Length: 3, Size: 5", e.getMessage());
+        }
+    }
+
+    @Test
+    public void complexArrayRoundTripTest() {
+        ComplexArray array = new ComplexArray(
+                new double [] {1.0, 2.0, 3.0},
+                new double [] {-1.0, 1.0, 10.0});
+        ComplexVector v = ComplexVector.fromComplexArray(array);
+        v.swap(0, 2);
+        Assert.assertEquals(
+                "[3.0 + 10.0i, 2.0 + 1.0i, 1.0 - 1.0i]",
+                v.toComplexArray().toString());
+        Assert.assertEquals(
+                "[1.0 - 1.0i, 2.0 + 1.0i, 3.0 + 10.0i]",
+                array.toString());
+    }
+
+    @Test
+    public void transformsMatchComplexArrayTest() {
+        ComplexArray t = ComplexArray.linspace(-Math.PI, Math.PI, 32);
+        ComplexVector tv = ComplexVector.linspace(-Math.PI, Math.PI, 32);
+        ComplexArray w = FourierTransform.fourierTransform(
+                Functions.sin(t));
+        ComplexVector wv = FourierTransform.fourierTransform(
+                Functions.sin(tv));
+        ComplexArray fft = Functions.sin(t);
+        FourierTransform.inPlaceFastFourierTransform(fft);
+        ComplexVector fftv = Functions.sin(tv);
+        FourierTransform.inPlaceFastFourierTransform(fftv);
+        for (int i = 0; i < 32; i++) {
+            Assert.assertEquals(w.get(i).getReal(), wv.getReal(i), 1e-12);
+            Assert.assertEquals(w.get(i).getImag(), wv.getImag(i), 1e-12);
+            Assert.assertEquals(fft.get(i).getReal(), fftv.getReal(i), 1e-12);
+            Assert.assertEquals(fft.get(i).getImag(), fftv.getImag(i), 1e-12);
+        }
+    }
+
+    @Test
+    public void viewTransformTest() {
+        ComplexVector t = ComplexVector.linspace(-Math.PI, Math.PI, 64);
+        ComplexVector z = Functions.cos(t);
+        ComplexVector untouched = z.copy();
+        ComplexVector odd = z.view(1, 32, 2).copy();
+        ComplexVector lastBlock = z.reversed().view(0, 16, 1).copy();
+        FourierTransform.inPlaceFastFourierTransform(odd);
+        FourierTransform.inPlaceFastFourierTransform(lastBlock);
+        ComplexVector w = z.copy();
+        FourierTransform.inPlaceFastFourierTransform(z.view(1, 32, 2));
+        FourierTransform.inPlaceFastFourierTransform(
+                w.reversed().view(0, 16, 1));
+        for (int i = 0; i < 32; i++) {
+            Assert.assertEquals(untouched.getReal(2*i), z.getReal(2*i), 0.0);
+            Assert.assertEquals(odd.getReal(i), z.getReal(2*i + 1), 1e-12);
+            Assert.assertEquals(odd.getImag(i), z.getImag(2*i + 1), 1e-12);
+        }
+        for (int i = 0; i < 16; i++) {
+            Assert.assertEquals(untouched.getReal(i), w.getReal(i), 0.0);
+            Assert.assertEquals(lastBlock.getReal(i), w.getReal(63 - i), 1e-12);
+            Assert.assertEquals(lastBlock.getImag(i), w.getImag(63 - i), 1e-12);
+        }
+    }
+
+    @Test
+    public void windowTest() {
+        ComplexVector z = new ComplexVector(
+                new double [] {1.0, 1.0, 1.0, 1.0},
+                new double [] {1.0, 1.0, 1.0, 1.0});
+        z.slice(1, 3).multiplyBy(new double [] {0.5, 2.0});
+        Assert.assertEquals(
+                "[1.0 + 1.0i, 0.5 + 0.5i, 2.0 + 2.0i, 1.0 + 1.0i]",
+                z.toString());
+    }
+
+    @Test
+    public void streamTest() {
+        double invsqrt2 = 1.0/Math.sqrt(2.0);
+        ComplexVector z = new ComplexVector(
+                new double [] {1.0,  invsqrt2, 0.0, -invsqrt2,
+                        -1.0, -invsqrt2,  0.0,  invsqrt2},
+                new double [] {0.0,  invsqrt2, 1.0,  invsqrt2,
+                        0.0, -invsqrt2, -1.0, -invsqrt2});
+        double [] args = z.argStream().toArray();
+        for (int i = 0; i < 8; i++) {
+            Assert.assertEquals(0.25*i, args[i]/Math.PI, 1e-15);
+        }
+        Assert.assertEquals(8.0, z.absStream().sum(), 1e-14);
+        Assert.assertEquals(0.0, z.realStream().sum(), 1e-15);
+        Assert.assertEquals(0.0, z.imagStream().sum(), 1e-15);
+        Assert.assertEquals(3L, z.stream()
+                .filter(w -> w.getReal() > 0.0).count());
+    }
+
+    @Test
+    public void parallelStreamTest() {
+        ComplexVector t = ComplexVector.linspace(0.0, 1.0, 100000);
+        ComplexVector z = Functions.exp(t);
+        Assert.assertEquals(100000L, z.spliterator().estimateSize());
+        Assert.assertEquals(50000L,
+                z.spliterator().trySplit().estimateSize());
+        double [] sequential = z.absStream().toArray();
+        double [] parallel = z.absStream().parallel().toArray();
+        Assert.assertArrayEquals(sequential, parallel, 0.0);
+        Assert.assertEquals(z.realStream().max().getAsDouble(),
+                z.parallelStream().mapToDouble(w -> w.getReal())
+                        .max().getAsDouble(), 0.0);
+    }
+
+    public static void main(String [] args) {
+        Result result = JUnitCore.runClasses(TestComplexVector.class);
+        int failCount = 0;
+        for (Failure failure: result.getFailures()) {
+            failCount++;
+            out.println(failure.toString());
+        }
+        out.printf("Passed %d/%d\n", (testCount - failCount), testCount);
+    }
+}
@@ -0,0 +1,171 @@
+import side.project.complex.ComplexValue;
+import side.project.complex.ComplexVector;
+import side.project.complex.ComplexVectors;
+import side.project.complex.DivisionByZeroException;
+import side.project.complex.FourierTransform;
+import side.project.complex.Functions;
+
+import org.junit.Test;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.runner.*;
+import org.junit.runner.notification.Failure;
+
+import static java.lang.System.out;
+
+public class TestComplexVectors {
+
+    public static int testCount = 0;
+
+    @Before
+    public void before() {
+        testCount++;
+    }
+
+    @Test
+    public void arithmeticTest() {
+        ComplexVector a = new ComplexVector(
+                new double [] {1.0, 4.0}, new double [] {7.0, 12.0});
+        ComplexVector b = new ComplexVector(
+                new double [] {1.0, 2.0}, new double [] {-7.0, -7.0});
+        ComplexVector dest = new ComplexVector(2);
+        ComplexVectors.add(a, b, dest);
+        Assert.assertEquals("[2.0, 6.0 + 5.0i]", dest.toString());
+        ComplexVectors.subtract(a, b, dest);
+        Assert.assertEquals("[14.0i, 2.0 + 19.0i]", dest.toString());
+        ComplexVectors.multiply(a, b, dest);
+        Assert.assertEquals("[50.0, 92.0 - 4.0i]", dest.toString());
+        ComplexVectors.divide(dest, b, dest);
+        Assert.assertEquals("[1.0 + 7.0i, 4.0 + 12.0i]", dest.toString());
+        ComplexVectors.scale(a, 0.0, 1.0, dest);
+        Assert.assertEquals("[-7.0 + 1.0i, -12.0 + 4.0i]", dest.toString());
+        try {
+            ComplexVectors.divideBy(a, new ComplexVector(
+                    new double [] {2.0, 0.0}, new double [] {0.0, 0.0}));
+            Assert.fail("Expected a DivisionByZeroException");
+        } catch (DivisionByZeroException e) {
+            Assert.assertEquals("[1.0 + 7.0i, 4.0 + 12.0i]", a.toString());
+        }
+        ComplexVectors.conjugate(dest);
+        ComplexVectors.scaleBy(dest, 2.0);
+        Assert.assertEquals("[-14.0 - 2.0i, -24.0 - 8.0i]", dest.toString());
+        ComplexVectors.multiplyAddBy(dest, a, b);
+        Assert.assertEquals("[36.0 - 2.0i, 68.0 - 12.0i]", dest.toString());
+        Assert.assertEquals("[1.0 + 7.0i, 4.0 + 12.0i]", a.toString());
+    }
+
+    @Test
+    public void twiddleTest() {
+        ComplexVector a = new ComplexVector(
+                new double [] {1.0, 1.0, 2.0}, new double [] {0.0, 1.0, 0.0});
+        ComplexVectors.multiplyByTwiddles(a,
+                new double [] {0.0, -1.0, 1.0},
+                new double [] {1.0, 0.0, 0.0});
+        Assert.assertEquals("[1.0i, -1.0 - 1.0i, 2.0]", a.toString());
+    }
+
+    @Test
+    public void parallelTest() {
+        int threshold = ComplexVectors.getParallelThreshold();
+        ComplexVector t = ComplexVector.linspace(0.0, 10.0, 100000);
+        ComplexVector a = Functions.exp(t);
+        ComplexVector b = Functions.sin(t);
+        ComplexVector sequential = new ComplexVector(t.size());
+        ComplexVector parallel = new ComplexVector(t.size());
+        try {
+            ComplexVectors.setParallelThreshold(Integer.MAX_VALUE);
+            ComplexVectors.multiply(a, b, sequential);
+            ComplexVectors.setParallelThreshold(1000);
+            ComplexVectors.multiply(a, b, parallel);
+        } finally {
+            ComplexVectors.setParallelThreshold(threshold);
+        }
+        Assert.assertArrayEquals(sequential.toRealArray(),
+                parallel.toRealArray(), 0.0);
+        Assert.assertArrayEquals(sequential.toImagArray(),
+                parallel.toImagArray(), 0.0);
+    }
+
+    @Test
+    public void reductionTest() {
+        ComplexVector a = new ComplexVector(
+                new double [] {3.0, 0.0, -1.0}, new double [] {4.0, 1.0, 1.0});
+        ComplexVector b = new ComplexVector(
+                new double [] {1.0, 2.0, 0.0}, new double [] {0.0, 0.0, 1.0});
+        Assert.assertEquals(ComplexValue.of(2.0, 6.0), ComplexVectors.sum(a));
+        Assert.assertEquals(ComplexValue.of(2.0/3.0, 2.0),
+                ComplexVectors.centroid(a));
+        Assert.assertEquals(ComplexValue.of(2.0, 5.0),
+                ComplexVectors.dot(a, b));
+        Assert.assertEquals(ComplexValue.of(4.0, -7.0),
+                ComplexVectors.hermitianDot(a, b));
+        Assert.assertEquals(28.0, ComplexVectors.energy(a), 1e-15);
+        Assert.assertEquals(Math.sqrt(28.0), ComplexVectors.norm2(a), 1e-15);
+        Assert.assertEquals(6.0 + Math.sqrt(2.0),
+                ComplexVectors.norm1(a), 1e-15);
+        Assert.assertEquals(Math.sqrt(26.0),
+                ComplexVectors.distance(a, b), 1e-15);
+        Assert.assertEquals(0, ComplexVectors.argMaxAbs(a));
+        Assert.assertEquals(5.0, ComplexVectors.maxAbs(a), 0.0);
+        Assert.assertEquals(-1, ComplexVectors.argMaxAbs(new ComplexVector()));
+    }
+
+    @Test
+    public void parsevalTest() {
+        int threshold = ComplexVectors.getParallelThreshold();
+        ComplexVector t = ComplexVector.linspace(-50.0, 50.0, 1 << 16);
+        ComplexVector z = Functions.sin(t);
+        z.set(12345, 0.0, 1e8);
+        double sequential, parallel;
+        int argMax;
+        try {
+            ComplexVectors.setParallelThreshold(Integer.MAX_VALUE);
+            sequential = ComplexVectors.energy(z);
+            ComplexVectors.setParallelThreshold(1024);
+            parallel = ComplexVectors.energy(z);
+            argMax = ComplexVectors.argMaxAbs(z);
+        } finally {
+            ComplexVectors.setParallelThreshold(threshold);
+        }
+        Assert.assertEquals(sequential, parallel, sequential*1e-15);
+        Assert.assertEquals(12345, argMax);
+        ComplexVector w = z.copy();
+        FourierTransform.inPlaceFastFourierTransform(w);
+        Assert.assertEquals(sequential,
+                ComplexVectors.energy(w)/w.size(), sequential*1e-12);
+    }
+
+    @Test
+    public void kernelTest() {
+        Assert.assertTrue(ComplexVectors.getKernelName(),
+                ComplexVectors.getKernelName().equals("scalar")
+                        || ComplexVectors.getKernelName().startsWith("vector("));
+        ComplexVector t = ComplexVector.linspace(-2.0, 2.0, 1001);
+        ComplexVector a = Functions.exp(new ComplexVector(
+                t.toRealArray(), t.toRealArray()));
+        ComplexVector b = Functions.cos(t);
+        ComplexVector dest = new ComplexVector(t.size());
+        ComplexVectors.multiply(a, b, dest);
+        for (int i = 0; i < t.size(); i++) {
+            double expRe = Math.exp(t.getReal(i));
+            Assert.assertEquals(expRe*Math.cos(t.getReal(i)),
+                    a.getReal(i), 1e-15*expRe);
+            Assert.assertEquals(expRe*Math.sin(t.getReal(i)),
+                    a.getImag(i), 1e-15*expRe);
+            Assert.assertEquals(a.getReal(i)*b.getReal(i)
+                    - a.getImag(i)*b.getImag(i), dest.getReal(i), 0.0);
+            Assert.assertEquals(a.getImag(i)*b.getReal(i)
+                    + a.getReal(i)*b.getImag(i), dest.getImag(i), 0.0);
+        }
+    }
+
+    public static void main(String [] args) {
+        Result result = JUnitCore.runClasses(TestComplexVectors.class);
+        int failCount = 0;
+        for (Failure failure: result.getFailures()) {
+            failCount++;
+            out.println(failure.toString());
+        }
+        out.printf("Passed %d/%d\n", (testCount - failCount), testCount);
+    }
+}
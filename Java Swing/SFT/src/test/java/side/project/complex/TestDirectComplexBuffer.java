@@ -0,0 +1,123 @@
+import side.project.complex.ComplexVector;
+import side.project.complex.DirectComplexBuffer;
+import side.project.complex.FourierTransform;
+import side.project.complex.Functions;
+
+import org.junit.Test;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.runner.*;
+import org.junit.runner.notification.Failure;
+
+import static java.lang.System.out;
+
+public class TestDirectComplexBuffer {
+
+    public static int testCount = 0;
+
+    @Before
+    public void before() {
+        testCount++;
+    }
+
+    @Test
+    public void roundTripTest() {
+        ComplexVector v = new ComplexVector(
+                new double [] {1.0, 2.0, 3.0},
+                new double [] {-1.0, 1.0, 10.0});
+        try (DirectComplexBuffer buffer
+                     = DirectComplexBuffer.fromComplexVector(v)) {
+            Assert.assertEquals(
+                    "[1.0 - 1.0i, 2.0 + 1.0i, 3.0 + 10.0i]",
+                    buffer.toString());
+            buffer.set(1, 0.0, 5.0);
+            Assert.assertEquals(
+                    "[1.0 - 1.0i, 5.0i, 3.0 + 10.0i]",
+                    buffer.toComplexVector().toString());
+        }
+    }
+
+    @Test
+    public void closeTest() {
+        DirectComplexBuffer buffer = new DirectComplexBuffer(4);
+        Assert.assertTrue(buffer.isOpen());
+        buffer.close();
+        buffer.close();
+        Assert.assertFalse(buffer.isOpen());
+        try {
+            buffer.getReal(0);
+            Assert.fail("Expected an IllegalStateException");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("The buffer has already been freed.",
+                    e.getMessage());
+        }
+    }
+
+    @Test
+    public void useAfterCloseTest() {
+        DirectComplexBuffer open = new DirectComplexBuffer(8);
+        DirectComplexBuffer buffer = new DirectComplexBuffer(8);
+        buffer.close();
+        Runnable [] uses = {
+                () -> buffer.set(0, 1.0, 2.0),
+                () -> buffer.get(0),
+                () -> buffer.getImag(0),
+                () -> buffer.toComplexVector(),
+                () -> FourierTransform.inPlaceFastFourierTransform(buffer),
+                () -> Functions.exp(buffer, open),
+                () -> Functions.sin(open, buffer),
+                () -> Functions.cos(buffer, buffer)
+        };
+        for (Runnable use: uses) {
+            try {
+                use.run();
+                Assert.fail("Expected an IllegalStateException");
+            } catch (IllegalStateException e) {
+                Assert.assertEquals("The buffer has already been freed.",
+                        e.getMessage());
+            }
+        }
+        Assert.assertEquals("DirectComplexBuffer(freed)", buffer.toString());
+        // The other buffer is not affected.
+        open.set(7, 1.0, -1.0);
+        Assert.assertEquals(-1.0, open.getImag(7), 0.0);
+        open.close();
+    }
+
+    @Test
+    public void tooLargeTest() {
+        try {
+            new DirectComplexBuffer(1 << 29);
+            Assert.fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains(
+                    String.valueOf(DirectComplexBuffer.MAX_SIZE)));
+        }
+    }
+
+    @Test
+    public void fastFourierTransformTest() {
+        ComplexVector t = ComplexVector.linspace(-Math.PI, Math.PI, 64);
+        ComplexVector z = Functions.sin(t);
+        try (DirectComplexBuffer buffer
+                     = DirectComplexBuffer.fromComplexVector(t)) {
+            Functions.sin(buffer, buffer);
+            FourierTransform.inPlaceFastFourierTransform(buffer);
+            FourierTransform.inPlaceFastFourierTransform(z);
+            for (int i = 0; i < 64; i++) {
+                Assert.assertEquals(z.getReal(i), buffer.getReal(i), 1e-12);
+                Assert.assertEquals(z.getImag(i), buffer.getImag(i), 1e-12);
+            }
+        }
+    }
+
+    public static void main(String [] args) {
+        Result result = JUnitCore.runClasses(TestDirectComplexBuffer.class);
+        int failCount = 0;
+        for (Failure failure: result.getFailures()) {
+            failCount++;
+            out.println(failure.toString());
+        }
+        out.printf("Passed %d/%d\n", (testCount - failCount), testCount);
+    }
+}
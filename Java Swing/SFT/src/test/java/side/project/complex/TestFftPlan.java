@@ -0,0 +1,170 @@
+import side.project.complex.ComplexVector;
+import side.project.complex.FftPlan;
+import side.project.complex.FourierTransform;
+
+import org.junit.Test;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.runner.*;
+import org.junit.runner.notification.Failure;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static java.lang.System.out;
+
+public class TestFftPlan {
+
+    static int testCount = 0;
+
+    @Before
+    public void before() {
+        testCount++;
+    }
+
+    private static ComplexVector signal(int n) {
+        ComplexVector z = new ComplexVector(n);
+        for (int i = 0; i < n; i++) {
+            z.set(i, Math.sin(0.4*i) + 0.2, Math.cos(0.09*i*i));
+        }
+        return z;
+    }
+
+    @Test
+    public void testForSizeIsCached() {
+        Assert.assertSame(FftPlan.forSize(64), FftPlan.forSize(64));
+        Assert.assertSame(FftPlan.forSize(64),
+                FftPlan.forSize(64, FftPlan.Direction.FORWARD));
+        Assert.assertNotSame(FftPlan.forSize(64),
+                FftPlan.forSize(64, FftPlan.Direction.INVERSE));
+        Assert.assertEquals(64, FftPlan.forSize(64).size());
+        Assert.assertEquals(FftPlan.Direction.INVERSE,
+                FftPlan.forSize(64, FftPlan.Direction.INVERSE).direction());
+    }
+
+    @Test
+    public void testTransformMatchesFourierTransform() {
+        int [] sizes = {1, 2, 4, 6, 8, 15, 64, 211, 256, 1000};
+        for (int n: sizes) {
+            ComplexVector z = signal(n);
+            ComplexVector expected = FourierTransform.fourierTransform(z);
+            ComplexVector outOfPlace = new ComplexVector(n);
+            FftPlan.forSize(n).transform(z, outOfPlace);
+            FftPlan.forSize(n).transform(z);
+            for (int i = 0; i < n; i++) {
+                Assert.assertEquals(n*expected.getReal(i), z.getReal(i), 1e-8);
+                Assert.assertEquals(n*expected.getImag(i), z.getImag(i), 1e-8);
+                Assert.assertEquals(z.getReal(i), outOfPlace.getReal(i), 1e-8);
+                Assert.assertEquals(z.getImag(i), outOfPlace.getImag(i), 1e-8);
+            }
+        }
+    }
+
+    @Test
+    public void testInverseUndoesForward() {
+        int [] sizes = {1, 2, 16, 30, 97, 1024};
+        for (int n: sizes) {
+            ComplexVector z = signal(n);
+            ComplexVector w = z.copy();
+            FftPlan.forSize(n).transform(w);
+            FftPlan.forSize(n, FftPlan.Direction.INVERSE).transform(w);
+            for (int i = 0; i < n; i++) {
+                Assert.assertEquals(z.getReal(i), w.getReal(i)/n, 1e-10);
+                Assert.assertEquals(z.getImag(i), w.getImag(i)/n, 1e-10);
+            }
+        }
+    }
+
+    @Test
+    public void testWrongSize() {
+        try {
+            FftPlan.forSize(16).transform(new ComplexVector(8));
+            Assert.fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains("16"));
+        }
+    }
+
+    @Test
+    public void testSharedBetweenThreads() throws Exception {
+        final int n = 4096;
+        final FftPlan plan = FftPlan.forSize(n);
+        ComplexVector expected = signal(n);
+        plan.transform(expected);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?> [] results = new Future<?>[8];
+            for (int t = 0; t < results.length; t++) {
+                results[t] = executor.submit(() -> {
+                    for (int k = 0; k < 20; k++) {
+                        ComplexVector z = signal(n);
+                        ComplexVector w = new ComplexVector(n);
+                        plan.transform(z, w);
+                        plan.transform(z);
+                        for (int i = 0; i < n; i++) {
+                            Assert.assertEquals(expected.getReal(i), z.getReal(i), 0.0);
+                            Assert.assertEquals(expected.getImag(i), z.getImag(i), 0.0);
+                            Assert.assertEquals(expected.getReal(i), w.getReal(i), 1e-9);
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (Future<?> result: results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testTransformBatch() {
+        int [] sizes = {1, 8, 30, 256};
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int n: sizes) {
+                int count = 200;
+                ComplexVector batch = new ComplexVector(count*n);
+                for (int s = 0; s < count; s++) {
+                    for (int i = 0; i < n; i++) {
+                        batch.set(s*n + i, Math.sin(0.4*i + s), Math.cos(0.09*i*s));
+                    }
+                }
+                ComplexVector expected = batch.copy();
+                FourierTransform.inPlaceBatchFastFourierTransform(batch, n, pool);
+                for (int s = 0; s < count; s++) {
+                    ComplexVector z = new ComplexVector(n);
+                    for (int i = 0; i < n; i++) {
+                        z.set(i, expected.getReal(s*n + i), expected.getImag(s*n + i));
+                    }
+                    FftPlan.forSize(n).transform(z);
+                    for (int i = 0; i < n; i++) {
+                        Assert.assertEquals(z.getReal(i), batch.getReal(s*n + i), 0.0);
+                        Assert.assertEquals(z.getImag(i), batch.getImag(s*n + i), 0.0);
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        try {
+            FftPlan.forSize(16).transformBatch(new ComplexVector(40));
+            Assert.fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains("40"));
+        }
+    }
+
+    public static void main(String [] args) {
+        Result result = JUnitCore.runClasses(TestFftPlan.class);
+        int failCount = 0;
+        for (Failure failure: result.getFailures()) {
+            failCount++;
+            out.println(failure.toString());
+        }
+        out.printf("Passed %d/%d\n", (testCount - failCount), testCount);
+    }
+}
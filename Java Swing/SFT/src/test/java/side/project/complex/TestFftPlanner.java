@@ -0,0 +1,224 @@
+import side.project.complex.ComplexVector;
+import side.project.complex.FftEngine;
+import side.project.complex.FftPlan;
+import side.project.complex.FftPlanner;
+import side.project.complex.FourierTransform;
+import side.project.complex.Normalization;
+
+import org.junit.Test;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.runner.*;
+import org.junit.runner.notification.Failure;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static java.lang.System.out;
+
+public class TestFftPlanner {
+
+    static int testCount = 0;
+
+    @Before
+    public void before() {
+        testCount++;
+    }
+
+    private static ComplexVector signal(int n) {
+        ComplexVector z = new ComplexVector(n);
+        for (int i = 0; i < n; i++) {
+            z.set(i, Math.sin(0.4*i) + 0.2, Math.cos(0.09*i*i));
+        }
+        return z;
+    }
+
+    @Test
+    public void testEnginesAreLoaded() {
+        List<String> names = new ArrayList<>();
+        for (FftEngine engine: FftPlanner.engines()) {
+            names.add(engine.name());
+        }
+        String [] expected = {"plan", "radix-4", "stockham", "four-step",
+                "parallel-four-step", "bluestein", "dft"};
+        for (String name: expected) {
+            Assert.assertTrue(name, names.contains(name));
+        }
+    }
+
+    @Test
+    public void testEnginesAgree() {
+        int [] sizes = {1, 2, 8, 12, 64, 97, 1024, 1000};
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            for (int n: sizes) {
+                ComplexVector expected = signal(n);
+                FftPlan.forSize(n).transform(expected);
+                for (FftEngine engine: FftPlanner.engines()) {
+                    if (!engine.supports(n)) {
+                        continue;
+                    }
+                    ComplexVector z = signal(n);
+                    engine.transform(z, pool);
+                    for (int i = 0; i < n; i++) {
+                        Assert.assertEquals(expected.getReal(i), z.getReal(i), 1e-8);
+                        Assert.assertEquals(expected.getImag(i), z.getImag(i), 1e-8);
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testPlannerChoice() {
+        int [] sizes = {1, 6, 256, 211, 4096};
+        for (int n: sizes) {
+            FftEngine engine = FftPlanner.forSize(n);
+            Assert.assertTrue(engine.supports(n));
+            Assert.assertSame(engine, FftPlanner.forSize(n));
+            ComplexVector z = signal(n);
+            ComplexVector expected = FourierTransform.fourierTransform(z);
+            ComplexVector FT = FftPlanner.fastFourierTransform(z, Normalization.FORWARD);
+            for (int i = 0; i < n; i++) {
+                Assert.assertEquals(expected.getReal(i), FT.getReal(i), 1e-10);
+                Assert.assertEquals(expected.getImag(i), FT.getImag(i), 1e-10);
+            }
+        }
+        try {
+            FftPlanner.forSize(0);
+            Assert.fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains("0"));
+        }
+    }
+
+    /*
+    An engine from outside the package, which can only reach the
+    values through the public bulk accessors.*/
+    public static final class CopyingEngine implements FftEngine {
+
+        @Override
+        public String name() {
+            return "copying";
+        }
+
+        @Override
+        public boolean supports(int n) {
+            return n > 0;
+        }
+
+        @Override
+        public void transform(ComplexVector vector, ForkJoinPool pool) {
+            int n = vector.size();
+            double [] re = new double[n];
+            double [] im = new double[n];
+            vector.getValues(0, re, im, 0, n);
+            double [] outRe = new double[n];
+            double [] outIm = new double[n];
+            for (int k = 0; k < n; k++) {
+                for (int j = 0; j < n; j++) {
+                    double angle = 2*Math.PI*(((long)j*k) % n)/n;
+                    outRe[k] += re[j]*Math.cos(angle) - im[j]*Math.sin(angle);
+                    outIm[k] += re[j]*Math.sin(angle) + im[j]*Math.cos(angle);
+                }
+            }
+            vector.setValues(0, outRe, outIm, 0, n);
+        }
+    }
+
+    @Test
+    public void testEngineOutsidePackage() {
+        int n = 45;
+        ComplexVector expected = signal(n);
+        FftPlan.forSize(n).transform(expected);
+        ComplexVector z = signal(n);
+        new CopyingEngine().transform(z);
+        for (int i = 0; i < n; i++) {
+            Assert.assertEquals(expected.getReal(i), z.getReal(i), 1e-10);
+            Assert.assertEquals(expected.getImag(i), z.getImag(i), 1e-10);
+        }
+    }
+
+    @Test
+    public void testCachedOrDefault() {
+        int n = 300;
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        // Returns straight away, measuring in the background if needed.
+        FftEngine engine = FftPlanner.cachedOrDefault(n, pool);
+        Assert.assertTrue(engine.supports(n));
+        ComplexVector z = signal(n);
+        ComplexVector expected = FourierTransform.fourierTransform(z);
+        ComplexVector FT = FftPlanner.cachedFastFourierTransform(z, Normalization.FORWARD);
+        for (int i = 0; i < n; i++) {
+            Assert.assertEquals(expected.getReal(i), FT.getReal(i), 1e-10);
+            Assert.assertEquals(expected.getImag(i), FT.getImag(i), 1e-10);
+        }
+        // Once a choice is made, it is the one returned.
+        Assert.assertSame(FftPlanner.forSize(n, pool), FftPlanner.cachedOrDefault(n, pool));
+        try {
+            FftPlanner.cachedOrDefault(0, pool);
+            Assert.fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains("0"));
+        }
+    }
+
+    @Test
+    public void testWisdomRoundTrip() throws Exception {
+        Path dir = Files.createTempDirectory("wisdom");
+        Path file = dir.resolve("fft-wisdom.txt");
+        Path lock = dir.resolve("fft-wisdom.txt.lock");
+        try {
+            String other = "other machine\tdouble\t8\t4096\tfour-step";
+            Files.write(file, (other + "\n").getBytes(StandardCharsets.UTF_8));
+            FftEngine engine = FftPlanner.forSize(512);
+            FftPlanner.saveWisdom(file);
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            Assert.assertTrue(lines.contains(other));
+            String mine = null;
+            for (String line: lines) {
+                if (line.endsWith("\t512\t" + engine.name())) {
+                    mine = line;
+                }
+            }
+            Assert.assertTrue("No line for size 512", mine != null);
+            // No temporary file is left behind, only the lock file.
+            try (Stream<Path> files = Files.list(dir)) {
+                Assert.assertEquals(2, files.count());
+            }
+            Assert.assertTrue(Files.exists(lock));
+
+            // A size this process never measured is taken from the file.
+            String prefix = mine.substring(0, mine.lastIndexOf("\t512\t"));
+            String loaded = prefix + "\t768\tbluestein";
+            lines.add(loaded);
+            Files.write(file, lines, StandardCharsets.UTF_8);
+            FftPlanner.loadWisdom(file);
+            Assert.assertEquals("bluestein", FftPlanner.forSize(768).name());
+            FftPlanner.saveWisdom(file);
+            Assert.assertTrue(Files.readAllLines(file, StandardCharsets.UTF_8)
+                    .contains(loaded));
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(lock);
+            Files.delete(dir);
+        }
+    }
+
+    public static void main(String [] args) {
+        Result result = JUnitCore.runClasses(TestFftPlanner.class);
+        int failCount = 0;
+        for (Failure failure: result.getFailures()) {
+            failCount++;
+            out.println(failure.toString());
+        }
+        out.printf("Passed %d/%d\n", (testCount - failCount), testCount);
+    }
+}
@@ -1,6 +1,8 @@
 import side.project.complex.ComplexArray;
+import side.project.complex.ComplexVector;
 import side.project.complex.FourierTransform;
 import side.project.complex.Functions;
+import side.project.complex.Normalization;
 
 import org.junit.Test;
 import org.junit.Assert;
@@ -8,17 +10,37 @@ import org.junit.Before;
 import org.junit.runner.*;
 import org.junit.runner.notification.Failure;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
 import static java.lang.System.out;
 
 public class TestFourierTransform {
 
     static int testCount = 0;
 
+    // Shared by the tests that compare a parallel transform with the
+    // sequential one. Its threads are daemons, so it needs no shutdown.
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
     @Before
     public void before() {
         testCount++;
     }
 
+    /*
+    A complex signal with no symmetry, so that every bin of its
+    transform is different and non zero.*/
+    private static ComplexVector signal(int n) {
+        ComplexVector z = new ComplexVector(n);
+        for (int i = 0; i < n; i++) {
+            z.set(i, Math.sin(0.3*i) + 0.05*i, Math.cos(1.7*i));
+        }
+        return z;
+    }
+
     @Test
     public void testFourierTransform1() {
         ComplexArray t = ComplexArray.linspace(-Math.PI, Math.PI, 32);
@@ -73,6 +95,316 @@ public class TestFourierTransform {
         }
     }
 
+    @Test
+    public void testFastFourierTransformAnyLength() {
+        int [] sizes = {1, 2, 3, 5, 7, 12, 30, 49, 97, 100, 243, 1000, 1019};
+        for (int n: sizes) {
+            ComplexVector z = new ComplexVector(n);
+            for (int i = 0; i < n; i++) {
+                z.set(i, Math.sin(0.37*i) + 0.1*i, Math.cos(1.3*i));
+            }
+            ComplexVector expected = FourierTransform.fourierTransform(z);
+            ComplexVector actual = FourierTransform.fastFourierTransform(z);
+            Assert.assertEquals(n, actual.size());
+            for (int i = 0; i < n; i++) {
+                Assert.assertEquals(expected.getReal(i), actual.getReal(i), 1e-9);
+                Assert.assertEquals(expected.getImag(i), actual.getImag(i), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testBluesteinFourierTransform() {
+        int [] sizes = {1, 2, 3, 8, 17, 97, 211, 1009};
+        for (int n: sizes) {
+            ComplexVector z = new ComplexVector(n);
+            for (int i = 0; i < n; i++) {
+                z.set(i, Math.cos(0.21*i*i/n), 0.5 - Math.sin(0.7*i));
+            }
+            ComplexVector expected = FourierTransform.fourierTransform(z);
+            ComplexVector actual = FourierTransform.bluesteinFourierTransform(z);
+            for (int i = 0; i < n; i++) {
+                Assert.assertEquals(expected.getReal(i), actual.getReal(i), 1e-9);
+                Assert.assertEquals(expected.getImag(i), actual.getImag(i), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testInPlaceRadix4FastFourierTransform() {
+        for (int n = 4; n <= 2048; n *= 2) {
+            ComplexVector z = ComplexVector.linspace(-Math.PI, Math.PI, n);
+            for (int i = 0; i < n; i++) {
+                z.set(i, Math.sin(z.getReal(i)), 0.25*Math.cos(3.0*z.getReal(i)));
+            }
+            ComplexVector expected = z.copy();
+            FourierTransform.inPlaceFastFourierTransform(expected);
+            FourierTransform.inPlaceRadix4FastFourierTransform(z);
+            for (int i = 0; i < n; i++) {
+                Assert.assertEquals(expected.getReal(i), z.getReal(i), 1e-9);
+                Assert.assertEquals(expected.getImag(i), z.getImag(i), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testOutOfPlaceFastFourierTransform() {
+        for (int n = 1; n <= 4096; n *= 2) {
+            ComplexVector z = new ComplexVector(n);
+            for (int i = 0; i < n; i++) {
+                z.set(i, Math.sin(0.3*i), Math.cos(0.05*i*i));
+            }
+            ComplexVector expected = FourierTransform.fourierTransform(z);
+            ComplexVector actual = FourierTransform.outOfPlaceFastFourierTransform(z);
+            FourierTransform.outOfPlaceFastFourierTransform(z, z);
+            for (int i = 0; i < n; i++) {
+                Assert.assertEquals(n*expected.getReal(i), actual.getReal(i), 1e-8);
+                Assert.assertEquals(n*expected.getImag(i), actual.getImag(i), 1e-8);
+                Assert.assertEquals(actual.getReal(i), z.getReal(i), 0.0);
+                Assert.assertEquals(actual.getImag(i), z.getImag(i), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testInPlaceFourStepFastFourierTransform() {
+        for (int n = 1; n <= (1 << 19); n *= 2) {
+            ComplexVector z = new ComplexVector(n);
+            for (int i = 0; i < n; i++) {
+                z.set(i, Math.sin(0.3*i) + 0.01*i, Math.cos(0.05*i));
+            }
+            ComplexVector expected = FourierTransform.outOfPlaceFastFourierTransform(z);
+            FourierTransform.inPlaceFourStepFastFourierTransform(z);
+            double tolerance = 1e-12*n*Math.log(n + 1);
+            for (int i = 0; i < n; i++) {
+                Assert.assertEquals(expected.getReal(i), z.getReal(i), tolerance);
+                Assert.assertEquals(expected.getImag(i), z.getImag(i), tolerance);
+            }
+        }
+    }
+
+    @Test
+    public void testParallelFastFourierTransform() {
+        int cutoff = FourierTransform.getParallelCutoff();
+        FourierTransform.setParallelCutoff(1);
+        try {
+            for (int n = 1; n <= (1 << 18); n *= 8) {
+                ComplexVector z = signal(n);
+                ComplexVector expected = z.copy();
+                FourierTransform.inPlaceFourStepFastFourierTransform(expected);
+                FourierTransform.parallelFastFourierTransform(z, POOL);
+                for (int i = 0; i < n; i++) {
+                    Assert.assertEquals(expected.getReal(i), z.getReal(i), 0.0);
+                    Assert.assertEquals(expected.getImag(i), z.getImag(i), 0.0);
+                }
+            }
+        } finally {
+            FourierTransform.setParallelCutoff(cutoff);
+        }
+    }
+
+    @Test
+    public void testConcurrentParallelFastFourierTransform() throws Exception {
+        int cutoff = FourierTransform.getParallelCutoff();
+        FourierTransform.setParallelCutoff(1);
+        ForkJoinPool pool = new ForkJoinPool(8);
+        try {
+            int n = 1 << 18;
+            ComplexVector expected = signal(n);
+            FourierTransform.inPlaceFourStepFastFourierTransform(expected);
+            ComplexVector [] vs = new ComplexVector[32];
+            for (int k = 0; k < vs.length; k++) {
+                vs[k] = signal(n);
+            }
+            // Threads waiting on a join help with the other transforms
+            // of the same size, which share one plan.
+            pool.submit(() -> IntStream.range(0, vs.length).parallel().forEach(
+                    k -> FourierTransform.parallelFastFourierTransform(vs[k], pool))).get();
+            for (ComplexVector z: vs) {
+                for (int i = 0; i < n; i++) {
+                    Assert.assertEquals(expected.getReal(i), z.getReal(i), 0.0);
+                    Assert.assertEquals(expected.getImag(i), z.getImag(i), 0.0);
+                }
+            }
+        } finally {
+            pool.shutdown();
+            FourierTransform.setParallelCutoff(cutoff);
+        }
+    }
+
+    private static void reset(ComplexArray z, ComplexArray values) {
+        for (int i = 0; i < z.size(); i++) {
+            z.get(i).setReal(values.get(i).getReal());
+            z.get(i).setImag(values.get(i).getImag());
+        }
+    }
+
+    @Test
+    public void testInPlaceFastFourierTransformDoesNotAllocate() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return;
+        }
+        com.sun.management.ThreadMXBean threads
+                = (com.sun.management.ThreadMXBean)bean;
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            return;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        ComplexArray original = Functions.sin(ComplexArray.linspace(-Math.PI, Math.PI, 1024));
+        ComplexArray z = Functions.sin(ComplexArray.linspace(-Math.PI, Math.PI, 1024));
+        // Warm up, so that the plan exists and the loops are compiled.
+        // z is reset before every transform, since the unnormalized
+        // values would otherwise grow until they overflow.
+        for (int i = 0; i < 200; i++) {
+            reset(z, original);
+            FourierTransform.inPlaceFastFourierTransform(z);
+        }
+        long id = Thread.currentThread().getId();
+        long overhead = -threads.getThreadAllocatedBytes(id);
+        overhead += threads.getThreadAllocatedBytes(id);
+        long before = threads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < 10; i++) {
+            reset(z, original);
+            FourierTransform.inPlaceFastFourierTransform(z);
+        }
+        long after = threads.getThreadAllocatedBytes(id);
+        ComplexArray expected = FourierTransform.fastFourierTransform(original);
+        for (int i = 0; i < 1024; i++) {
+            Assert.assertEquals(1024*expected.get(i).getReal(), z.get(i).getReal(), 1e-8);
+            Assert.assertEquals(1024*expected.get(i).getImag(), z.get(i).getImag(), 1e-8);
+        }
+        Assert.assertEquals(0, after - before - overhead);
+    }
+
+    @Test
+    public void testRealFastFourierTransform() {
+        int [] sizes = {1, 2, 3, 8, 15, 30, 64, 97, 1000};
+        for (int n: sizes) {
+            double [] x = signal(n).toRealArray();
+            double [] y = signal(n).toImagArray();
+            ComplexVector expected = FourierTransform.fourierTransform(new ComplexVector(x));
+            ComplexVector expectedY = FourierTransform.fourierTransform(new ComplexVector(y));
+            ComplexVector X = FourierTransform.realFastFourierTransform(x);
+            ComplexVector [] XY = FourierTransform.realFastFourierTransform(x, y);
+            Assert.assertEquals(n/2 + 1, X.size());
+            for (int k = 0; k <= n/2; k++) {
+                Assert.assertEquals(expected.getReal(k), X.getReal(k), 1e-10);
+                Assert.assertEquals(expected.getImag(k), X.getImag(k), 1e-10);
+                Assert.assertEquals(expected.getReal(k), XY[0].getReal(k), 1e-10);
+                Assert.assertEquals(expected.getImag(k), XY[0].getImag(k), 1e-10);
+                Assert.assertEquals(expectedY.getReal(k), XY[1].getReal(k), 1e-10);
+                Assert.assertEquals(expectedY.getImag(k), XY[1].getImag(k), 1e-10);
+            }
+            double [] back = FourierTransform.inverseRealFastFourierTransform(X, n);
+            Assert.assertArrayEquals(x, back, 1e-10);
+        }
+    }
+
+    @Test
+    public void testParallelFourierTransform() {
+        int [] sizes = {1, 3, 100, 1500, 3001};
+        for (int n: sizes) {
+            ComplexVector z = signal(n);
+            ComplexVector expected = FourierTransform.fastFourierTransform(z);
+            ComplexVector parallel = FourierTransform.fourierTransform(z, POOL);
+            ComplexVector sequential = FourierTransform.fourierTransform(z, null);
+            for (int k = 0; k < n; k++) {
+                Assert.assertEquals(expected.getReal(k), parallel.getReal(k), 1e-10);
+                Assert.assertEquals(expected.getImag(k), parallel.getImag(k), 1e-10);
+                Assert.assertEquals(sequential.getReal(k), parallel.getReal(k), 0.0);
+                Assert.assertEquals(sequential.getImag(k), parallel.getImag(k), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testSelectedFourierTransform() {
+        int [] sizes = {1, 7, 4096, 5000, 10007};
+        int [] few = {0, 1, -1, 3, -3, 2*10007 + 5};
+        int [] many = new int[40];
+        for (int b = 0; b < many.length; b++) {
+            many[b] = b - 20;
+        }
+        for (int n: sizes) {
+            ComplexVector z = signal(n);
+            ComplexVector full = FourierTransform.fastFourierTransform(z);
+            for (int [] frequencies: new int [][] {few, many}) {
+                ComplexVector bins = FourierTransform.selectedFourierTransform(z, frequencies, POOL);
+                ComplexVector sequential = FourierTransform.selectedFourierTransform(z, frequencies, null);
+                Assert.assertEquals(frequencies.length, bins.size());
+                for (int b = 0; b < frequencies.length; b++) {
+                    int k = Math.floorMod(frequencies[b], n);
+                    Assert.assertEquals(full.getReal(k), bins.getReal(b), 1e-10);
+                    Assert.assertEquals(full.getImag(k), bins.getImag(b), 1e-10);
+                    Assert.assertEquals(sequential.getReal(b), bins.getReal(b), 0.0);
+                    Assert.assertEquals(sequential.getImag(b), bins.getImag(b), 0.0);
+                }
+            }
+            ComplexVector low = FourierTransform.lowFrequencyFourierTransform(z, 3);
+            int K = Math.min(3, (n - 1)/2);
+            double [] freq = FourierTransform.fourierFrequencies(2*K + 1);
+            Assert.assertEquals(2*K + 1, low.size());
+            for (int b = 0; b < low.size(); b++) {
+                int k = Math.floorMod((int)freq[b], n);
+                Assert.assertEquals(full.getReal(k), low.getReal(b), 1e-10);
+                Assert.assertEquals(full.getImag(k), low.getImag(b), 1e-10);
+            }
+        }
+        try {
+            FourierTransform.lowFrequencyFourierTransform(new ComplexVector(8), -1);
+            Assert.fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains("-1"));
+        }
+    }
+
+    @Test
+    public void testNormalizationRoundTrips() {
+        int [] sizes = {1, 2, 12, 64, 97, 1019};
+        for (int n: sizes) {
+            ComplexVector x = signal(n);
+            double [] re = x.toRealArray();
+            double [] im = x.toImagArray();
+            ComplexVector expected = FourierTransform.fourierTransform(x);
+            ComplexVector unscaled = FourierTransform.fastFourierTransform(x, Normalization.BACKWARD);
+            ComplexVector ortho = FourierTransform.fastFourierTransform(x, Normalization.ORTHO);
+            double energy = 0.0, orthoEnergy = 0.0;
+            for (int k = 0; k < n; k++) {
+                Assert.assertEquals(expected.getReal(k)*n, unscaled.getReal(k), 1e-8);
+                Assert.assertEquals(expected.getImag(k)*n, unscaled.getImag(k), 1e-8);
+                energy += re[k]*re[k] + im[k]*im[k];
+                orthoEnergy += ortho.getReal(k)*ortho.getReal(k) + ortho.getImag(k)*ortho.getImag(k);
+            }
+            Assert.assertEquals(energy, orthoEnergy, 1e-8*energy);
+            for (Normalization norm: Normalization.values()) {
+                ComplexVector back = FourierTransform.inverseFastFourierTransform(
+                        FourierTransform.fastFourierTransform(x, norm), norm);
+                Assert.assertArrayEquals(re, back.toRealArray(), 1e-10);
+                Assert.assertArrayEquals(im, back.toImagArray(), 1e-10);
+            }
+            ComplexVector back = FourierTransform.inverseFastFourierTransform(expected);
+            Assert.assertArrayEquals(re, back.toRealArray(), 1e-10);
+            Assert.assertArrayEquals(im, back.toImagArray(), 1e-10);
+        }
+    }
+
+    @Test
+    public void testInPlaceInverseFastFourierTransform() {
+        int [] sizes = {1, 2, 16, 1024, 1 << 18};
+        for (int n: sizes) {
+            ComplexVector x = signal(n);
+            double [] re = x.toRealArray();
+            double [] im = x.toImagArray();
+            FourierTransform.inPlaceFastFourierTransform(x);
+            FourierTransform.inPlaceInverseFastFourierTransform(x);
+            // The signal grows like 0.05*n.
+            double tolerance = 1e-13*n;
+            Assert.assertArrayEquals(re, x.toRealArray(), tolerance);
+            Assert.assertArrayEquals(im, x.toImagArray(), tolerance);
+        }
+    }
+
     public static void main(String [] args) {
         Result result = JUnitCore.runClasses(TestFourierTransform.class);
         int failCount = 0;
@@ -0,0 +1,85 @@
+package side.project.complex;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/*
+SIMD versions of the ComplexKernels, written with the incubating
+JDK Vector API. The preferred species is picked at run time, so the
+same code uses 256 bit registers on AVX2 and 512 bit registers on
+AVX-512. The last few elements that do not fill a whole vector are
+handled by the scalar loops.
+
+This class is only loaded through ComplexKernels, and only if the
+jdk.incubator.vector module is present. It lives in its own source
+root, src/vector/java, which is compiled together with src/main/java
+and --add-modules jdk.incubator.vector when the SIMD loops are
+wanted. The default build leaves it out and needs no module.*/
+final class VectorComplexKernels extends ComplexKernels.Scalar {
+
+    private static final VectorSpecies<Double> SPECIES
+            = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    String name() {
+        return "vector(" + SPECIES + ")";
+    }
+
+    @Override
+    void multiply(double [] aRe, double [] aIm,
+                  double [] bRe, double [] bIm,
+                  double [] dRe, double [] dIm,
+                  int from, int to) {
+        int i = from;
+        int upper = from + SPECIES.loopBound(to - from);
+        for (; i < upper; i += SPECIES.length()){
+            DoubleVector ar = DoubleVector.fromArray(SPECIES, aRe, i);
+            DoubleVector ai = DoubleVector.fromArray(SPECIES, aIm, i);
+            DoubleVector br = DoubleVector.fromArray(SPECIES, bRe, i);
+            DoubleVector bi = DoubleVector.fromArray(SPECIES, bIm, i);
+            ar.mul(br).sub(ai.mul(bi)).intoArray(dRe, i);
+            ai.mul(br).add(ar.mul(bi)).intoArray(dIm, i);
+        }
+        super.multiply(aRe, aIm, bRe, bIm, dRe, dIm, i, to);
+    }
+
+    @Override
+    void butterflies(double [] re, double [] im,
+                     int even, int odd, int half,
+                     double [] wRe, double [] wIm) {
+        int k = 0;
+        int upper = SPECIES.loopBound(half);
+        for (; k < upper; k += SPECIES.length()){
+            DoubleVector cosVal = DoubleVector.fromArray(SPECIES, wRe, k);
+            DoubleVector sinVal = DoubleVector.fromArray(SPECIES, wIm, k);
+            DoubleVector oddRe = DoubleVector.fromArray(SPECIES, re, odd + k);
+            DoubleVector oddIm = DoubleVector.fromArray(SPECIES, im, odd + k);
+            DoubleVector evenRe = DoubleVector.fromArray(SPECIES, re, even + k);
+            DoubleVector evenIm = DoubleVector.fromArray(SPECIES, im, even + k);
+            DoubleVector expRe = cosVal.mul(oddRe).sub(oddIm.mul(sinVal));
+            DoubleVector expIm = cosVal.mul(oddIm).add(oddRe.mul(sinVal));
+            evenRe.sub(expRe).intoArray(re, odd + k);
+            evenIm.sub(expIm).intoArray(im, odd + k);
+            evenRe.add(expRe).intoArray(re, even + k);
+            evenIm.add(expIm).intoArray(im, even + k);
+        }
+        butterflies(re, im, even, odd, k, half, wRe, wIm);
+    }
+
+    @Override
+    void exp(double [] sRe, double [] sIm,
+             double [] dRe, double [] dIm,
+             int from, int to) {
+        int i = from;
+        int upper = from + SPECIES.loopBound(to - from);
+        for (; i < upper; i += SPECIES.length()){
+            DoubleVector expRe = DoubleVector.fromArray(SPECIES, sRe, i)
+                    .lanewise(VectorOperators.EXP);
+            DoubleVector imVal = DoubleVector.fromArray(SPECIES, sIm, i);
+            expRe.mul(imVal.lanewise(VectorOperators.COS)).intoArray(dRe, i);
+            expRe.mul(imVal.lanewise(VectorOperators.SIN)).intoArray(dIm, i);
+        }
+        super.exp(sRe, sIm, dRe, dIm, i, to);
+    }
+}